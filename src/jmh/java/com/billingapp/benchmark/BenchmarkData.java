@@ -0,0 +1,119 @@
+package com.billingapp.benchmark;
+
+import com.billingapp.BillingApplication;
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.BillItem;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixtures shared by the benchmarks: in-memory bills and an application context on embedded H2.
+ */
+final class BenchmarkData {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * A detached bill with the given number of lines; every tenth line has a long name.
+     */
+    static Bill bill(int lines) {
+        Bill bill = new Bill();
+        bill.setId(1L);
+        bill.setBillNumber("BENCH-" + lines);
+        bill.setCustomerName("Benchmark Customer");
+        bill.setPhoneNumber("9876543210");
+        bill.setBillDate(LocalDateTime.of(2026, 1, 1, 10, 0));
+        bill.setType("CASH");
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            BillItem item = new BillItem();
+            item.setId((long) i + 1);
+            item.setItemId((long) i % 500 + 1);
+            item.setItemName(i % 10 == 0
+                    ? "Wholesale item " + i + " with a long description that will not fit its column"
+                    : "Item " + i);
+            item.setUnit("pcs");
+            item.setQuantity(1 + i % 5);
+            item.setMrp(BigDecimal.valueOf(100 + i % 50));
+            item.setSellPrice(BigDecimal.valueOf(90 + i % 50));
+            item.setPrice(item.getSellPrice());
+            item.calculateTotal();
+            subtotal = subtotal.add(item.getTotal());
+            bill.addItem(item);
+        }
+        bill.setSubtotal(subtotal);
+        bill.setDiscountAmount(BigDecimal.TEN);
+        bill.setGrandTotal(subtotal.subtract(BigDecimal.TEN));
+        bill.setCreatedAt(bill.getBillDate());
+        bill.setUpdatedAt(bill.getBillDate());
+        return bill;
+    }
+
+    /**
+     * Start the application without the web server against a fresh in-memory H2 database.
+     * {@code extraArgs} are further {@code --name=value} properties.
+     * Flyway is off (the migrations are PostgreSQL-only); Hibernate creates the schema and
+     * the indexes from V1 and the V8 sequence are added on top so queries use the same access paths.
+     */
+    static ConfigurableApplicationContext startContext(String... extraArgs) {
+        return startContext(WebApplicationType.NONE, new Class<?>[0], extraArgs);
+    }
+
+    /**
+     * As {@link #startContext(String...)}, but with the embedded web server on a random port
+     * (see {@link #port}) and {@code extraSources} registered next to the application.
+     */
+    static ConfigurableApplicationContext startWebContext(Class<?>[] extraSources, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0"));
+        args.addAll(List.of(extraArgs));
+        return startContext(WebApplicationType.SERVLET, extraSources, args.toArray(new String[0]));
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static ConfigurableApplicationContext startContext(WebApplicationType webType, Class<?>[] extraSources,
+                                                               String... extraArgs) {
+        String url = "jdbc:h2:mem:bench" + DATABASES.incrementAndGet()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+        List<String> args = new ArrayList<>(List.of(
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN"));
+        args.addAll(List.of(extraArgs));
+        // Command-line arguments so they win over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BillingApplication.class)
+                .sources(extraSources)
+                .web(webType)
+                .run(args.toArray(new String[0]));
+
+        context.getBean(JdbcTemplate.class).batchUpdate(
+                "CREATE INDEX IF NOT EXISTS idx_bills_customer_name ON bills(customer_name)",
+                "CREATE INDEX IF NOT EXISTS idx_bills_bill_date ON bills(bill_date)",
+                "CREATE INDEX IF NOT EXISTS idx_bill_items_bill_id ON bill_items(bill_id)",
+                "CREATE INDEX IF NOT EXISTS idx_bill_items_item_id ON bill_items(item_id)",
+                "CREATE SEQUENCE IF NOT EXISTS bill_number_seq START WITH 1 INCREMENT BY 100");
+        return context;
+    }
+}
@@ -0,0 +1,45 @@
+package com.billingapp.benchmark;
+
+import com.billingapp.dto.BillResponse;
+import com.billingapp.entity.Bill;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping as done for every bill the API returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillMappingBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int lines;
+
+    private Bill bill;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bill = BenchmarkData.bill(lines);
+    }
+
+    @Benchmark
+    public BillResponse fromEntity() {
+        return BillResponse.fromEntity(bill);
+    }
+}
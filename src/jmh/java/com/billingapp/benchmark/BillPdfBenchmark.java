@@ -0,0 +1,50 @@
+package com.billingapp.benchmark;
+
+import com.billingapp.entity.Bill;
+import com.billingapp.service.BillService;
+import com.billingapp.service.InvoicePdfRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BillService#generatePdf} for typical shop bill sizes, including the byte[] copy the
+ * single-invoice API used to return. See {@link InvoiceLayoutBenchmark} for very long bills.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillPdfBenchmark {
+
+    @Param({"5", "50"})
+    public int lines;
+
+    private BillService billService;
+    private Bill bill;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // generatePdf only uses the renderer, so the repositories are not needed here
+        billService = new BillService(null, null, null, new InvoicePdfRenderer(), null, null, null, null, null, null);
+        bill = BenchmarkData.bill(lines);
+    }
+
+    @Benchmark
+    public byte[] generatePdf() {
+        return billService.generatePdf(bill);
+    }
+}
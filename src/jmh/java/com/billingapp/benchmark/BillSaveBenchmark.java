@@ -0,0 +1,157 @@
+package com.billingapp.benchmark;
+
+import com.billingapp.dto.BillRequest;
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.Item;
+import com.billingapp.repository.ItemRepository;
+import com.billingapp.service.BillService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BillService#saveBill} end to end on embedded H2: bill and line inserts plus the
+ * stock decrement. Bills are cleared after each iteration so the table size stays stable.
+ *
+ * The {@code statementsPerSave} counter is the number of JDBC statements Hibernate prepared
+ * per saved bill (one per batch when inserts are batched). With IDENTITY ids it grew with the
+ * line count; with pooled sequences it stays flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BillSaveBenchmark {
+
+    private static final int CATALOG_SIZE = 200;
+
+    @Param({"3", "20", "100"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private BillService billService;
+    private JdbcTemplate jdbcTemplate;
+    private List<Item> catalog;
+    private long sequence;
+    private Statistics statistics;
+
+    // EVENTS counters are summed over the measurement iterations, so each iteration reports its share
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StatementCounter {
+        public double statementsPerSave;
+        long saves;
+        long statements;
+        int iterations;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkParams params) {
+            iterations = params.getMeasurement().getCount();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext("--spring.jpa.properties.hibernate.generate_statistics=true");
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        billService = context.getBean(BillService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        catalog = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            Item item = new Item();
+            item.setName("bench-item-" + i);
+            item.setItemName("Bench item " + i);
+            item.setPurchasePrice(BigDecimal.valueOf(80));
+            item.setMrp(BigDecimal.valueOf(100));
+            item.setSellPrice(BigDecimal.valueOf(90));
+            item.setMinSellPrice(BigDecimal.valueOf(85));
+            item.setCurrentStock(Integer.MAX_VALUE / 2);
+            item.setMinStockLevel(0);
+            item.setUnit("pcs");
+            catalog.add(itemRepository.save(item));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearBills() {
+        jdbcTemplate.update("DELETE FROM bill_items");
+        jdbcTemplate.update("DELETE FROM bills");
+        jdbcTemplate.update("DELETE FROM sales_daily_rollup");
+        jdbcTemplate.update("DELETE FROM item_sales_daily");
+        jdbcTemplate.update("DELETE FROM customer_ledger");
+        jdbcTemplate.update("DELETE FROM customers");
+        jdbcTemplate.update("UPDATE items SET current_stock = ?", Integer.MAX_VALUE / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Bill saveBill(StatementCounter counter) {
+        long before = statistics.getPrepareStatementCount();
+        Bill bill = save();
+        counter.statements += statistics.getPrepareStatementCount() - before;
+        counter.saves++;
+        counter.statementsPerSave = (double) counter.statements / counter.saves / counter.iterations;
+        return bill;
+    }
+
+    private Bill save() {
+        long n = ++sequence;
+        BillRequest request = new BillRequest();
+        request.setBillNumber("BENCH-" + n);
+        request.setCustomerName("Customer " + (n % 500));
+        request.setType(n % 3 == 0 ? "CREDIT" : "CASH");
+        request.setBillDate(LocalDateTime.now());
+        request.setTaxAmount(BigDecimal.ZERO);
+        request.setDiscountAmount(BigDecimal.ZERO);
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            Item item = catalog.get((int) ((n * 31 + i) % CATALOG_SIZE));
+            BillRequest.BillItemRequest line = new BillRequest.BillItemRequest();
+            line.setItemId(item.getId());
+            line.setItemName(item.getItemName());
+            line.setMrp(item.getMrp());
+            line.setSellPrice(item.getSellPrice());
+            line.setPrice(item.getSellPrice());
+            line.setQuantity(1);
+            line.setTotal(item.getSellPrice());
+            line.setUnit(item.getUnit());
+            request.getItems().add(line);
+            subtotal = subtotal.add(line.getTotal());
+        }
+        request.setSubtotal(subtotal);
+        request.setGrandTotal(subtotal);
+        return billService.saveBill(request);
+    }
+}
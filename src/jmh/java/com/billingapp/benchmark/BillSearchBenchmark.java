@@ -0,0 +1,112 @@
+package com.billingapp.benchmark;
+
+import com.billingapp.dto.BillCursor;
+import com.billingapp.dto.KeysetPage;
+import com.billingapp.entity.Bill;
+import com.billingapp.service.BillService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BillService#searchBills} over 10k, 100k and 1M bills on embedded H2: the first page,
+ * a page from the middle of the history (keyset cursor) and a customer/date/type filtered page.
+ * Bills are inserted directly with JDBC batches, one line each, spread over three years.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BillSearchBenchmark {
+
+    private static final int PAGE_SIZE = BillService.DEFAULT_PAGE_SIZE;
+    private static final int INSERT_BATCH = 5_000;
+    private static final int CUSTOMERS = 500;
+    private static final LocalDateTime FIRST_BILL = LocalDateTime.of(2024, 1, 1, 9, 0);
+    private static final long HISTORY_MINUTES = 3L * 365 * 24 * 60;
+
+    @Param({"10000", "100000", "1000000"})
+    public int bills;
+
+    private ConfigurableApplicationContext context;
+    private BillService billService;
+    private String middleCursor;
+    private LocalDate filterFrom;
+    private LocalDate filterTo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext();
+        billService = context.getBean(BillService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> billRows = new ArrayList<>(INSERT_BATCH);
+        List<Object[]> itemRows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 1; i <= bills; i++) {
+            Timestamp billDate = Timestamp.valueOf(billDate(i));
+            billRows.add(new Object[] {(long) i, "B-" + i, "Customer " + (i % CUSTOMERS), 100, 0, 0, 100,
+                    i % 3 == 0 ? "CREDIT" : "CASH", billDate, billDate});
+            itemRows.add(new Object[] {(long) i, (long) i, (long) (i % 200 + 1), "Item " + (i % 200), 100, 100, 100, 1, 100, "pcs"});
+            if (billRows.size() == INSERT_BATCH || i == bills) {
+                jdbcTemplate.batchUpdate("INSERT INTO bills (id, bill_number, customer_name, subtotal, tax_amount, "
+                        + "discount_amount, grand_total, type, bill_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", billRows);
+                jdbcTemplate.batchUpdate("INSERT INTO bill_items (id, bill_id, item_id, item_name, mrp, sell_price, "
+                        + "price, quantity, total, unit) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", itemRows);
+                billRows.clear();
+                itemRows.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        long middle = bills / 2;
+        middleCursor = new BillCursor(billDate(middle), middle).encode();
+        filterTo = billDate(bills).toLocalDate();
+        filterFrom = filterTo.minusDays(90);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public KeysetPage<Bill> firstPage() {
+        return billService.searchBills(null, null, null, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public KeysetPage<Bill> middlePage() {
+        return billService.searchBills(null, null, null, null, middleCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public KeysetPage<Bill> filteredPage() {
+        return billService.searchBills("Customer 42", filterFrom, filterTo, "CREDIT", null, PAGE_SIZE);
+    }
+
+    private LocalDateTime billDate(long i) {
+        return FIRST_BILL.plusMinutes(HISTORY_MINUTES * i / bills);
+    }
+}
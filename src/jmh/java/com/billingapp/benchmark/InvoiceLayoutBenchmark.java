@@ -0,0 +1,68 @@
+package com.billingapp.benchmark;
+
+import com.billingapp.entity.Bill;
+import com.billingapp.service.InvoicePdfRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice rendering throughput by bill size. Output goes to a counting sink so only layout
+ * and PDF serialization are measured.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="InvoiceLayout"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceLayoutBenchmark {
+
+    @Param({"10", "100", "5000"})
+    public int lines;
+
+    private InvoicePdfRenderer renderer;
+    private Bill bill;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        renderer = new InvoicePdfRenderer();
+        bill = BenchmarkData.bill(lines);
+    }
+
+    @Benchmark
+    public long render() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        renderer.render(bill, out);
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.billingapp.benchmark;
+
+import com.billingapp.entity.Item;
+import com.billingapp.repository.ItemRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the two request execution modes over HTTP: Tomcat's platform worker pool
+ * (default, 200 threads) against virtual threads (billing.virtual-threads.enabled=true).
+ *
+ * Every database connection is held for {@code dbLatencyMs} before use, standing in for a
+ * slow database, and the pool has 10 connections, so database-bound requests queue.
+ * <ul>
+ *   <li>{@code dbBoundWave}: {@code clients} concurrent {@code GET /api/items} (database-bound);
+ *       time until all have answered.</li>
+ *   <li>{@code cachedItemUnderLoad}: one {@code GET /api/items/{id}}, served from the item
+ *       cache, while {@code clients} database-bound requests are kept in flight. In platform
+ *       mode it waits for a worker thread behind the blocked ones; with virtual threads it does not.</li>
+ * </ul>
+ * Needs Java 21. Example: {@code -Djmh.args="RequestModeBenchmark -p clients=1000"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestModeBenchmark {
+
+    private static final int CATALOG_SIZE = 50;
+    private static final int POOL_SIZE = 10;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"200", "1000"})
+    public int clients;
+
+    @Param({"20"})
+    public int dbLatencyMs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<Long> itemIds;
+    private int next;
+
+    /**
+     * Keeps {@code clients} database-bound requests in flight until the trial ends.
+     */
+    @State(Scope.Benchmark)
+    public static class BackgroundLoad {
+        private volatile boolean running;
+        private Thread driver;
+
+        @Setup(Level.Trial)
+        public void start(RequestModeBenchmark benchmark) {
+            Semaphore inFlight = new Semaphore(benchmark.clients);
+            running = true;
+            driver = new Thread(() -> {
+                while (running) {
+                    try {
+                        inFlight.acquire();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    benchmark.send("/api/items?size=20").whenComplete((response, error) -> inFlight.release());
+                }
+            }, "background-load");
+            driver.setDaemon(true);
+            driver.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws InterruptedException {
+            running = false;
+            driver.interrupt();
+            driver.join();
+        }
+    }
+
+    /**
+     * Not a @Configuration, so the application's component scan does not pick it up;
+     * it is registered as an extra source of this benchmark's context only.
+     */
+    public static class SlowDatabase {
+
+        @Bean
+        public static BeanPostProcessor slowDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    int latencyMs = Integer.getInteger("bench.db-latency-ms", 0);
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            Connection connection = super.getConnection();
+                            try {
+                                Thread.sleep(latencyMs);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return connection;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("bench.db-latency-ms", String.valueOf(dbLatencyMs));
+        context = BenchmarkData.startWebContext(new Class<?>[] {SlowDatabase.class},
+                "--billing.virtual-threads.enabled=" + "virtual".equals(mode),
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.datasource.hikari.connection-timeout=60000",
+                "--billing.virtual-threads.db-acquire-timeout-ms=60000");
+        baseUrl = "http://localhost:" + BenchmarkData.port(context);
+
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        itemIds = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            Item item = new Item();
+            item.setName("load-item-" + i);
+            item.setItemName("Load item " + i);
+            item.setPurchasePrice(BigDecimal.valueOf(80));
+            item.setMrp(BigDecimal.valueOf(100));
+            item.setSellPrice(BigDecimal.valueOf(90));
+            item.setMinSellPrice(BigDecimal.valueOf(85));
+            item.setCurrentStock(1000);
+            item.setMinStockLevel(0);
+            item.setUnit("pcs");
+            itemIds.add(itemRepository.save(item).getId());
+        }
+
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        // Fill the item cache
+        itemIds.forEach(id -> send("/api/items/" + id).join());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.clearProperty("bench.db-latency-ms");
+    }
+
+    @Benchmark
+    public int dbBoundWave() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            responses.add(send("/api/items?size=20"));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            ok += response.join().statusCode() == 200 ? 1 : 0;
+        }
+        return ok;
+    }
+
+    @Benchmark
+    public int cachedItemUnderLoad(BackgroundLoad load) {
+        next = (next + 1) % CATALOG_SIZE;
+        return send("/api/items/" + itemIds.get(next)).join().statusCode();
+    }
+
+    CompletableFuture<HttpResponse<Void>> send(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(120))
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+}
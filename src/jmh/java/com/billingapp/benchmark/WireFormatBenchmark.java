@@ -0,0 +1,147 @@
+package com.billingapp.benchmark;
+
+import com.billingapp.config.WireFormatConfig;
+import com.billingapp.dto.BillRequest;
+import com.billingapp.dto.BillResponse;
+import com.billingapp.dto.ItemSummary;
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.BillItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the wire formats, with the payload size reported next to the
+ * timings: a bill response, a bill request as posted by a till, and a page of item summaries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    // Lines per bill and items per page
+    @Param({"3", "20", "100"})
+    public int rows;
+
+    private ObjectMapper mapper;
+    private BillResponse response;
+    private List<ItemSummary> items;
+    private byte[] requestPayload;
+
+    // EVENTS counters are summed over the measurement iterations, so each iteration reports its share
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public double payloadBytes;
+        int iterations;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkParams params) {
+            iterations = params.getMeasurement().getCount();
+        }
+
+        void record(int bytes) {
+            payloadBytes = (double) bytes / iterations;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Same settings as the application's converters: Spring Boot writes JSON dates as strings
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = switch (format) {
+            case "json" -> builder.build();
+            case "smile" -> WireFormatConfig.binaryMapper(builder, new SmileFactory());
+            case "cbor" -> WireFormatConfig.binaryMapper(builder, new CBORFactory());
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+
+        Bill bill = BenchmarkData.bill(rows);
+        response = BillResponse.fromEntity(bill);
+        requestPayload = mapper.writeValueAsBytes(request(bill));
+        items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            items.add(new ItemSummary((long) i + 1, "Item " + i, "Grocery", BigDecimal.valueOf(80),
+                    BigDecimal.valueOf(100), BigDecimal.valueOf(90), BigDecimal.valueOf(85), 100 + i, 10,
+                    "pcs", String.valueOf(8901000000000L + i), LocalDateTime.of(2026, 1, 1, 10, 0)));
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeBill(PayloadSize size) throws IOException {
+        byte[] payload = mapper.writeValueAsBytes(response);
+        size.record(payload.length);
+        return payload;
+    }
+
+    @Benchmark
+    public BillRequest decodeBillRequest(PayloadSize size) throws IOException {
+        size.record(requestPayload.length);
+        return mapper.readValue(requestPayload, BillRequest.class);
+    }
+
+    @Benchmark
+    public byte[] encodeItemPage(PayloadSize size) throws IOException {
+        byte[] payload = mapper.writeValueAsBytes(items);
+        size.record(payload.length);
+        return payload;
+    }
+
+    private static BillRequest request(Bill bill) {
+        BillRequest request = new BillRequest();
+        request.setBillNumber(bill.getBillNumber());
+        request.setCustomerName(bill.getCustomerName());
+        request.setPhoneNumber(bill.getPhoneNumber());
+        request.setSubtotal(bill.getSubtotal());
+        request.setTaxAmount(BigDecimal.ZERO);
+        request.setDiscountAmount(bill.getDiscountAmount());
+        request.setGrandTotal(bill.getGrandTotal());
+        request.setType(bill.getType());
+        request.setBillDate(bill.getBillDate());
+        List<BillRequest.BillItemRequest> lines = new ArrayList<>();
+        for (BillItem item : bill.getItems()) {
+            BillRequest.BillItemRequest line = new BillRequest.BillItemRequest();
+            line.setItemId(item.getItemId());
+            line.setItemName(item.getItemName());
+            line.setMrp(item.getMrp());
+            line.setSellPrice(item.getSellPrice());
+            line.setPrice(item.getPrice());
+            line.setQuantity(item.getQuantity());
+            line.setTotal(item.getTotal());
+            line.setUnit(item.getUnit());
+            lines.add(line);
+        }
+        request.setItems(lines);
+        return request;
+    }
+}
@@ -2,6 +2,7 @@ package com.billingapp.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -17,6 +18,7 @@ public class CorsConfig implements WebMvcConfigurer {
             .allowedOrigins("http://localhost:3000") // Your React app's URL
             .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
             .allowedHeaders("*")
+            .exposedHeaders("X-Next-Cursor", HttpHeaders.LINK, "X-Total-Count")
             .allowCredentials(true);
     }
 
@@ -26,6 +28,9 @@ public class CorsConfig implements WebMvcConfigurer {
         configuration.addAllowedOrigin("http://localhost:3000");
         configuration.addAllowedMethod("*");
         configuration.addAllowedHeader("*");
+        configuration.addExposedHeader("X-Next-Cursor");
+        configuration.addExposedHeader(HttpHeaders.LINK);
+        configuration.addExposedHeader("X-Total-Count");
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,26 @@
+package com.billingapp.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class EventStreamConfig {
+
+    /**
+     * Threads that write pushed events to subscribers. A subscriber has at most one write
+     * task in flight at a time (see EventStreamService), and a thread is started for it when
+     * none is idle, so a client whose connection stalls ties up its own thread only, never
+     * the other subscribers or the publishers. Idle threads end after a minute.
+     *
+     * Platform threads, not virtual ones: SseEmitter.send holds the emitter's monitor while
+     * it writes, which would pin a virtual thread's carrier for as long as the write blocks.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService eventSendExecutor() {
+        return Executors.newCachedThreadPool(new CustomizableThreadFactory("event-send-"));
+    }
+}
@@ -0,0 +1,28 @@
+package com.billingapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class PdfRenderingConfig {
+
+    /**
+     * Fixed-size pool for bulk invoice rendering. The queue is bounded and overflow runs on
+     * the submitting thread, so a large export cannot pile up unbounded work.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pdfRenderExecutor(@Value("${billing.pdf.render-threads:0}") int renderThreads) {
+        int threads = renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                new CustomizableThreadFactory("pdf-render-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,74 @@
+package com.billingapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in virtual-thread mode (billing.virtual-threads.enabled=true, needs Java 21).
+ *
+ * Tomcat runs every request on its own virtual thread instead of its bounded worker pool,
+ * and async MVC work (streaming exports, event streams) does the same. Blocking in JDBC then
+ * no longer ties up a platform thread. The DataSource is wrapped in a {@link BoundedDataSource}
+ * sized to the connection pool so the extra concurrency queues cheaply in front of the pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "billing.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        log.info("Handling requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public AsyncTaskExecutor virtualThreadMvcExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(virtualThreadMvcExecutor());
+    }
+
+    // Static so the post-processor exists before the DataSource is created
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("billing.virtual-threads.db-permits", Integer.class, 0);
+                if (permits <= 0 && dataSource instanceof HikariDataSource hikari) {
+                    permits = hikari.getMaximumPoolSize();
+                }
+                if (permits <= 0) {
+                    // Pool size not set (Hikari only fills in its default when the pool starts)
+                    permits = HIKARI_DEFAULT_POOL_SIZE;
+                }
+                long timeoutMs = environment.getProperty("billing.virtual-threads.db-acquire-timeout-ms",
+                        Long.class, 30000L);
+                log.info("Bounding DataSource '{}' to {} concurrent connections", beanName, permits);
+                return new BoundedDataSource(dataSource, permits, timeoutMs);
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.billingapp.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Binary representations for slow till links, chosen per request through Accept (responses)
+ * and Content-Type (request bodies), next to the default JSON:
+ * application/x-jackson-smile (Smile back-references repeated field names, which suits
+ * bills with many lines) and application/cbor.
+ *
+ * Both mappers start from the application's Jackson settings. They ignore {@code @JsonFormat}
+ * date patterns and write dates as numeric arrays instead of formatted strings.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    public static final MediaType APPLICATION_CBOR = MediaType.APPLICATION_CBOR;
+
+    private static final List<MediaType> VARIANTS = List.of(MediaType.APPLICATION_JSON, APPLICATION_SMILE, APPLICATION_CBOR);
+
+    // Spring Boot adds converter beans ahead of its defaults
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory()));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+    }
+
+    /**
+     * Mapper for a binary format, configured like the JSON one except for dates.
+     */
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        ObjectMapper mapper = builder.factory(factory).build();
+        mapper.setAnnotationIntrospector(new NumericDatesIntrospector());
+        mapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    /**
+     * Which representation the client prefers according to its Accept header: the JSON,
+     * Smile or CBOR media type. Clients that name none of them get JSON.
+     */
+    public static MediaType preferredVariant(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType type : accepted) {
+                for (MediaType variant : VARIANTS) {
+                    if (type.isCompatibleWith(variant) && !type.isWildcardType()) {
+                        return variant;
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Fall through to JSON, as content negotiation would
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    // Drops @JsonFormat patterns so dates fall back to the (numeric) timestamp shape
+    private static class NumericDatesIntrospector extends JacksonAnnotationIntrospector {
+        @Override
+        public JsonFormat.Value findFormat(Annotated annotated) {
+            JsonFormat.Value format = super.findFormat(annotated);
+            if (format != null && format.hasPattern()) {
+                return format.withPattern(null).withShape(JsonFormat.Shape.ANY);
+            }
+            return format;
+        }
+    }
+}
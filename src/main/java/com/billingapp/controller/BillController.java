@@ -1,9 +1,19 @@
 package com.billingapp.controller;
 
+import com.billingapp.dto.BillBatchResult;
 import com.billingapp.dto.BillRequest;
 import com.billingapp.dto.BillResponse;
+import com.billingapp.dto.KeysetPage;
+import com.billingapp.dto.ResourceVersion;
 import com.billingapp.entity.Bill;
+import com.billingapp.service.BillIngestionService;
+import com.billingapp.service.BillNumberGenerator;
 import com.billingapp.service.BillService;
+import com.billingapp.service.InvoiceExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,7 +24,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -27,12 +42,26 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "http://localhost:3000")
 public class BillController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final BillService billService;
+    private final InvoiceExportService invoiceExportService;
+    private final BillIngestionService billIngestionService;
+    private final BillNumberGenerator billNumberGenerator;
+    private final ObjectMapper objectMapper;
     private static final Logger log = LoggerFactory.getLogger(BillController.class);
 
     @Autowired
-    public BillController(BillService billService) {
+    public BillController(BillService billService, InvoiceExportService invoiceExportService,
+                          BillIngestionService billIngestionService, BillNumberGenerator billNumberGenerator,
+                          ObjectMapper objectMapper) {
         this.billService = billService;
+        this.invoiceExportService = invoiceExportService;
+        this.billIngestionService = billIngestionService;
+        this.billNumberGenerator = billNumberGenerator;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -50,8 +79,7 @@ public class BillController {
             
             // Generate bill number if not provided
             if (billRequest.getBillNumber() == null || billRequest.getBillNumber().trim().isEmpty()) {
-                String billNumber = "BILL-" + System.currentTimeMillis();
-                billRequest.setBillNumber(billNumber);
+                billRequest.setBillNumber(billNumberGenerator.next());
             }
             
             Bill savedBill = billService.saveBill(billRequest);
@@ -61,19 +89,68 @@ public class BillController {
         }
     }
 
+    /**
+     * Save a batch of bills, e.g. from a till that was offline. Bills are checked one by one
+     * and the response holds a result per bill; resending a batch does not create duplicates.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBills(@RequestBody List<BillRequest> billRequests) {
+        try {
+            List<BillBatchResult> results = billIngestionService.ingest(billRequests);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error ingesting bill batch: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error creating bills: " + e.getMessage());
+        }
+    }
+
+    /**
+     * List bills newest first, one keyset page at a time.
+     */
     @GetMapping
-    public ResponseEntity<List<BillResponse>> getAllBills() {
-        List<Bill> bills = billService.findAll();
-        List<BillResponse> response = bills.stream()
-                .map(BillResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<List<BillResponse>> getAllBills(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BillService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        return toPageResponse(billService.searchBills(null, null, null, null, cursor, limit, count));
+    }
+
+    /**
+     * Export all bills, with {@code export=true} or when the client accepts application/x-ndjson.
+     * The body is written while bills are read from a database cursor, as a JSON array by
+     * default or as NDJSON.
+     */
+    @GetMapping(params = "export=true")
+    public ResponseEntity<StreamingResponseBody> exportBills(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean ndjson = accept != null && accept.contains(APPLICATION_NDJSON_VALUE);
+        StreamingResponseBody body = out -> writeBills(out, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType(APPLICATION_NDJSON_VALUE) : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBillsAsNdjson() {
+        return exportBills(APPLICATION_NDJSON_VALUE);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getBillById(@PathVariable Long id) {
+    public ResponseEntity<?> getBillById(@PathVariable Long id, WebRequest request) {
+        // Check the validators against updated_at before loading the bill and its items
+        Optional<ResourceVersion> version = billService.findVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalRequests.notModified(request, "bill-" + id, version.get().getLastModified())) {
+            return null;
+        }
         return billService.findById(id)
-                .map(bill -> ResponseEntity.ok(BillResponse.fromEntity(bill)))
+                .map(bill -> ResponseEntity.ok()
+                        .cacheControl(ConditionalRequests.REVALIDATE)
+                        .body(BillResponse.fromEntity(bill)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -89,24 +166,15 @@ public class BillController {
             @RequestParam(required = false) String q,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(required = false) String type) {
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BillService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean count) {
         
         try {
-            // If no search parameters provided, return all bills
-            if (q == null && startDate == null && endDate == null && type == null) {
-                List<Bill> allBills = billService.findAll();
-                List<BillResponse> response = allBills.stream()
-                        .map(BillResponse::fromEntity)
-                        .collect(Collectors.toList());
-                return ResponseEntity.ok(response);
-            }
-            
-            List<Bill> bills = billService.searchBills(q, startDate, endDate, type);
-            List<BillResponse> response = bills.stream()
-                    .map(BillResponse::fromEntity)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(response);
-            
+            return toPageResponse(billService.searchBills(q, startDate, endDate, type, cursor, limit, count));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error searching bills: " + e.getMessage());
@@ -114,42 +182,39 @@ public class BillController {
     }
 
     @GetMapping("/customer/{customerName}")
-    public ResponseEntity<List<BillResponse>> getBillsByCustomer(@PathVariable String customerName) {
-        List<Bill> bills = billService.searchBills(customerName, null, null, null);
-        List<BillResponse> response = bills.stream()
-                .map(BillResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<List<BillResponse>> getBillsByCustomer(
+            @PathVariable String customerName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BillService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        return toPageResponse(billService.searchBills(customerName, null, null, null, cursor, limit, count));
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<BillResponse>> getBillsByType(@PathVariable String type) {
-        List<Bill> bills = billService.searchBills(null, null, null, type);
-        List<BillResponse> response = bills.stream()
-                .map(BillResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<List<BillResponse>> getBillsByType(
+            @PathVariable String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BillService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        return toPageResponse(billService.searchBills(null, null, null, type, cursor, limit, count));
     }
 
     @GetMapping("/credit")
-    public ResponseEntity<List<BillResponse>> getCreditBills() {
-        List<Bill> bills = billService.searchBills(null, null, null, "CREDIT");
-        List<BillResponse> response = bills.stream()
-                .map(BillResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<List<BillResponse>> getCreditBills(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BillService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        return toPageResponse(billService.searchBills(null, null, null, "CREDIT", cursor, limit, count));
     }
 
     @GetMapping("/date-range")
     public ResponseEntity<List<BillResponse>> getBillsBetweenDates(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        
-        List<Bill> bills = billService.searchBills(null, startDate, endDate, null);
-        List<BillResponse> response = bills.stream()
-                .map(BillResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BillService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean count) {
+        return toPageResponse(billService.searchBills(null, startDate, endDate, null, cursor, limit, count));
     }
 
     @DeleteMapping("/{id}")
@@ -163,23 +228,99 @@ public class BillController {
     }
 
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<byte[]> generatePdf(@PathVariable Long id) {
-        try {
-            Optional<Bill> billOptional = billService.findById(id);
-            if (billOptional.isEmpty()) {
-                return ResponseEntity.notFound().build();
+    public ResponseEntity<StreamingResponseBody> generatePdf(@PathVariable Long id, WebRequest request) {
+        Optional<ResourceVersion> version = billService.findVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalRequests.notModified(request, "bill-pdf-" + id, version.get().getLastModified())) {
+            return null;
+        }
+        Optional<Bill> billOptional = billService.findByIdWithItems(id);
+        if (billOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        Bill bill = billOptional.get();
+        StreamingResponseBody body = out -> {
+            try {
+                billService.writePdf(bill, out);
+            } catch (IOException e) {
+                log.error("Error generating PDF for bill {}: {}", id, e.getMessage(), e);
+                throw e;
+            }
+        };
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "bill_" + id + ".pdf");
+        headers.setCacheControl(ConditionalRequests.REVALIDATE);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    /**
+     * Invoices for every bill in a date range, as a ZIP of PDFs (default) or one merged PDF.
+     */
+    @GetMapping("/pdf")
+    public ResponseEntity<StreamingResponseBody> exportPdfs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "zip") String format) {
+        boolean merged = "merged".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            if (merged) {
+                invoiceExportService.writeMerged(startDate, endDate, out);
+            } else {
+                invoiceExportService.writeZip(startDate, endDate, out);
+            }
+        };
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(merged ? MediaType.APPLICATION_PDF : MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment",
+                "bills_" + startDate + "_" + endDate + (merged ? ".pdf" : ".zip"));
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    // Keyset pages carry the position of the next page in headers so the body stays a plain list
+    private ResponseEntity<List<BillResponse>> toPageResponse(KeysetPage<Bill> page) {
+        List<BillResponse> response = page.getContent().stream()
+                .map(BillResponse::fromEntity)
+                .collect(Collectors.toList());
+        HttpHeaders headers = PageHeaders.forCursor(page.getNextCursor(), page.getTotalCount());
+        if (page.hasNext()) {
+            headers.set(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return ResponseEntity.ok().headers(headers).body(response);
+    }
+
+    private void writeBills(OutputStream out, boolean ndjson) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            billService.exportBills(chunk -> {
+                try {
+                    for (Bill bill : chunk) {
+                        writer.writeValue(generator, BillResponse.fromEntity(bill));
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                    }
+                    // Push each chunk to the client as soon as it is serialized
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!ndjson) {
+                generator.writeEndArray();
             }
-            
-            Bill bill = billOptional.get();
-            byte[] pdf = billService.generatePdf(bill);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "bill_" + id + ".pdf");
-            return ResponseEntity.ok().headers(headers).body(pdf);
-        } catch (Exception e) {
-            log.error("Error generating PDF for bill {}: {}", id, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(("Error generating PDF: " + e.getMessage()).getBytes());
         }
     }
 }
@@ -0,0 +1,97 @@
+package com.billingapp.controller;
+
+import com.billingapp.dto.BillReturnRequest;
+import com.billingapp.entity.BillReturn;
+import com.billingapp.service.BillReturnService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Returns (credit notes) against bills. Stock, sales reports and credit balances follow in
+ * the same transaction; a batch of returns costs one stock update round trip in total.
+ */
+@RestController
+@RequestMapping("/api/returns")
+@CrossOrigin(origins = "http://localhost:3000")
+public class BillReturnController {
+
+    private final BillReturnService billReturnService;
+    private static final Logger log = LoggerFactory.getLogger(BillReturnController.class);
+
+    @Autowired
+    public BillReturnController(BillReturnService billReturnService) {
+        this.billReturnService = billReturnService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createReturn(@Valid @RequestBody BillReturnRequest request) {
+        try {
+            BillReturn billReturn = billReturnService.recordReturn(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(billReturn);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error recording return: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error recording return: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Record many returns at once, e.g. a till's returns at the end of the day. Either all
+     * are recorded or, if one is invalid, none.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createReturns(@RequestBody List<BillReturnRequest> requests) {
+        try {
+            List<BillReturn> billReturns = billReturnService.recordReturns(requests);
+            return ResponseEntity.status(HttpStatus.CREATED).body(billReturns);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error recording return batch: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error recording returns: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BillReturn> getReturn(@PathVariable Long id) {
+        Optional<BillReturn> billReturn = billReturnService.findById(id);
+        if (billReturn.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(billReturn.get());
+    }
+
+    /**
+     * Returns against one bill ({@code billId}), or made on one day ({@code date}).
+     */
+    @GetMapping
+    public ResponseEntity<?> getReturns(
+            @RequestParam(required = false) Long billId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        if ((billId == null) == (date == null)) {
+            return ResponseEntity.badRequest().body("Give either billId or date");
+        }
+        try {
+            return ResponseEntity.ok(billId != null
+                    ? billReturnService.findByBillId(billId)
+                    : billReturnService.findByReturnDate(date));
+        } catch (Exception e) {
+            log.error("Error reading returns: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reading returns: " + e.getMessage());
+        }
+    }
+}
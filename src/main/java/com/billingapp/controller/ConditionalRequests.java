@@ -0,0 +1,64 @@
+package com.billingapp.controller;
+
+import com.billingapp.config.WireFormatConfig;
+import com.billingapp.dto.ResourceVersion;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Conditional GET support. The strong ETag and Last-Modified are derived from a
+ * {@link ResourceVersion} (row count and newest updated_at), so a matching
+ * If-None-Match / If-Modified-Since is answered with 304 before the body is loaded.
+ * The same data has a JSON, Smile and CBOR representation, so the ETag names the one
+ * the client asked for and responses vary by Accept.
+ */
+final class ConditionalRequests {
+
+    // Clients may keep responses but must revalidate them on every use
+    static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private ConditionalRequests() {}
+
+    /**
+     * Set ETag and Last-Modified on the response and check the request's validators.
+     * When this returns true the response is already a 304 and the handler should return null.
+     * @param tag Identifies the resource kind (and id), e.g. {@code "items"} or {@code "bill-42"}
+     */
+    static boolean notModified(WebRequest request, String tag, ResourceVersion version) {
+        return notModified(request, tag + "-" + version.getCount(), version.getLastModified());
+    }
+
+    /**
+     * As above for a single row, validated by its updated_at alone.
+     */
+    static boolean notModified(WebRequest request, String tag, LocalDateTime lastModified) {
+        MediaType variant = WireFormatConfig.preferredVariant(request.getHeader(HttpHeaders.ACCEPT));
+        String etag = "\"" + tag + "-" + stamp(lastModified) + "-" + variant.getSubtype() + "\"";
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        long lastModifiedMillis = lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        return request.checkNotModified(etag, lastModifiedMillis);
+    }
+
+    // Full precision, so two changes within the same second still get different tags
+    private static String stamp(LocalDateTime time) {
+        if (time == null) {
+            return "0";
+        }
+        return Long.toString(time.atZone(ZoneId.systemDefault()).toEpochSecond(), 36)
+                + "." + Integer.toString(time.getNano(), 36);
+    }
+}
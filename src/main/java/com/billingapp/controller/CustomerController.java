@@ -0,0 +1,104 @@
+package com.billingapp.controller;
+
+import com.billingapp.dto.PaymentRequest;
+import com.billingapp.entity.Customer;
+import com.billingapp.entity.CustomerLedgerEntry;
+import com.billingapp.service.CustomerLedgerService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+/**
+ * Credit customers: balances, top debtors, ledgers and payments. Balances are kept up to
+ * date as bills are saved, so none of these endpoints scan the bills table.
+ */
+@RestController
+@RequestMapping("/api/customers")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CustomerController {
+
+    private final CustomerLedgerService customerLedgerService;
+    private static final Logger log = LoggerFactory.getLogger(CustomerController.class);
+
+    @Autowired
+    public CustomerController(CustomerLedgerService customerLedgerService) {
+        this.customerLedgerService = customerLedgerService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Customer> getCustomer(@PathVariable Long id) {
+        Optional<Customer> customer = customerLedgerService.findById(id);
+        if (customer.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(customer.get());
+    }
+
+    /**
+     * The account a bill with this name and phone number is charged to.
+     */
+    @GetMapping("/balance")
+    public ResponseEntity<?> getBalance(@RequestParam(required = false) String name,
+                                        @RequestParam(required = false) String phone) {
+        try {
+            Optional<Customer> customer = customerLedgerService.findByNameOrPhone(name, phone);
+            if (customer.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(customer.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/top-debtors")
+    public ResponseEntity<?> getTopDebtors(
+            @RequestParam(defaultValue = "" + CustomerLedgerService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(customerLedgerService.getTopDebtors(limit));
+        } catch (Exception e) {
+            log.error("Error reading top debtors: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reading top debtors: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A customer's credit bills, returns, payments and reversals, newest first.
+     */
+    @GetMapping("/{id}/ledger")
+    public ResponseEntity<?> getLedger(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CustomerLedgerService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(customerLedgerService.getLedger(id, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error reading ledger: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reading ledger: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/{id}/payments")
+    public ResponseEntity<?> recordPayment(@PathVariable Long id, @Valid @RequestBody PaymentRequest request) {
+        try {
+            CustomerLedgerEntry payment = customerLedgerService.recordPayment(
+                    id, request.getAmount(), request.getNote(), request.getPaymentDate());
+            return ResponseEntity.status(HttpStatus.CREATED).body(payment);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error recording payment: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error recording payment: " + e.getMessage());
+        }
+    }
+}
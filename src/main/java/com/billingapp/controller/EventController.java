@@ -0,0 +1,52 @@
+package com.billingapp.controller;
+
+import com.billingapp.service.EventStreamService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Push channel replacing the polling of /api/items and /api/bills.
+ *
+ * {@code GET /api/events?topics=stock,low-stock,bills} (default: all) streams
+ * {@code stock} (latest stock of changed items, coalesced), {@code low-stock} (reorder-level
+ * crossings) and {@code bill} (new bill headers). On {@code ready} and on {@code resync} the
+ * client reloads what it shows; after that the events keep it current.
+ */
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "http://localhost:3000")
+public class EventController {
+
+    private final EventStreamService eventStreamService;
+    private static final Logger log = LoggerFactory.getLogger(EventController.class);
+
+    @Autowired
+    public EventController(EventStreamService eventStreamService) {
+        this.eventStreamService = eventStreamService;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@RequestParam(required = false) String topics) {
+        SseEmitter emitter = eventStreamService.subscribe(EventStreamService.parseTopics(topics));
+        // Keeps reverse proxies from buffering the stream
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleTooManySubscribers(IllegalStateException e) {
+        log.warn("Rejected event subscriber: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+}
@@ -1,15 +1,28 @@
 package com.billingapp.controller;
 
+import com.billingapp.config.WireFormatConfig;
 import com.billingapp.dto.ItemQuantity;
+import com.billingapp.dto.ItemSummary;
+import com.billingapp.dto.ResourceVersion;
 import com.billingapp.entity.Item;
 import com.billingapp.exception.InsufficientStockException;
+import com.billingapp.service.CatalogSnapshotService;
+import com.billingapp.service.CatalogSnapshotService.ContentCoding;
+import com.billingapp.service.ItemSearchIndex;
 import com.billingapp.service.ItemService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -20,17 +33,54 @@ public class ItemController {
     @Autowired
     private ItemService itemService;
     
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+    
+    // List and catalog reads answer If-None-Match / If-Modified-Since from the catalog version
+    // (item count and newest updated_at) and only run the page query when something changed
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
-        List<Item> items = itemService.getAllItems();
-        return ResponseEntity.ok(items);
+    public ResponseEntity<List<ItemSummary>> getAllItems(
+            @PageableDefault(size = ItemService.DEFAULT_PAGE_SIZE, sort = "itemName") Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean count,
+            WebRequest request) {
+        if (ConditionalRequests.notModified(request, "items", itemService.getCatalogVersion())) {
+            return null;
+        }
+        return toPageResponse(itemService.getAllItems(pageable, count));
+    }
+    
+    /**
+     * The whole POS catalog, served from pre-serialized and pre-compressed snapshot bytes.
+     */
+    @GetMapping("/catalog")
+    public ResponseEntity<byte[]> getPosCatalog(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        ResourceVersion version = itemService.getCatalogVersion();
+        MediaType format = WireFormatConfig.preferredVariant(request.getHeader(HttpHeaders.ACCEPT));
+        ContentCoding coding = CatalogSnapshotService.negotiate(acceptEncoding);
+        // Each encoding is a different byte sequence, so it gets its own strong ETag
+        String tag = coding == ContentCoding.IDENTITY ? "catalog" : "catalog-" + coding.headerValue();
+        if (ConditionalRequests.notModified(request, tag, version)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(format)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(ConditionalRequests.REVALIDATE);
+        if (coding != ContentCoding.IDENTITY) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, coding.headerValue());
+        }
+        return builder.body(catalogSnapshotService.getCatalog(version, format, coding));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
+    public ResponseEntity<Item> getItemById(@PathVariable Long id, WebRequest request) {
         Optional<Item> item = itemService.getItemById(id);
-        return item.map(ResponseEntity::ok)
-                  .orElse(ResponseEntity.notFound().build());
+        if (item.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return toItemResponse(item.get(), request);
     }
     
     @PostMapping
@@ -57,16 +107,20 @@ public class ItemController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Item>> searchItems(@RequestParam(required = false) String query) {
-        List<Item> items = itemService.searchItems(query);
+    public ResponseEntity<List<ItemSummary>> searchItems(
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "" + ItemSearchIndex.DEFAULT_LIMIT) int limit) {
+        List<ItemSummary> items = itemService.searchItems(query, limit);
         return ResponseEntity.ok(items);
     }
     
     @GetMapping("/barcode/{barcode}")
-    public ResponseEntity<Item> getItemByBarcode(@PathVariable String barcode) {
+    public ResponseEntity<Item> getItemByBarcode(@PathVariable String barcode, WebRequest request) {
         Optional<Item> item = itemService.getItemByBarcode(barcode);
-        return item.map(ResponseEntity::ok)
-                 .orElse(ResponseEntity.notFound().build());
+        if (item.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return toItemResponse(item.get(), request);
     }
     
     @PutMapping("/{id}")
@@ -122,15 +176,31 @@ public class ItemController {
     }
     
     @GetMapping("/low-stock")
-    public ResponseEntity<List<Item>> getLowStockItems() {
-        List<Item> lowStockItems = itemService.getLowStockItems();
-        return ResponseEntity.ok(lowStockItems);
+    public ResponseEntity<List<ItemSummary>> getLowStockItems(
+            @PageableDefault(size = ItemService.DEFAULT_PAGE_SIZE, sort = "currentStock") Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean count,
+            WebRequest request) {
+        if (ConditionalRequests.notModified(request, "items", itemService.getCatalogVersion())) {
+            return null;
+        }
+        return toPageResponse(itemService.getLowStockItems(pageable, count));
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Item>> getItemsByCategory(@PathVariable String category) {
-        List<Item> items = itemService.getItemsByCategory(category);
-        return ResponseEntity.ok(items);
+    public ResponseEntity<List<ItemSummary>> getItemsByCategory(
+            @PathVariable String category,
+            @PageableDefault(size = ItemService.DEFAULT_PAGE_SIZE, sort = "itemName") Pageable pageable,
+            @RequestParam(defaultValue = "false") boolean count,
+            WebRequest request) {
+        if (ConditionalRequests.notModified(request, "items", itemService.getCatalogVersion())) {
+            return null;
+        }
+        return toPageResponse(itemService.getItemsByCategory(category, pageable, count));
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCatalogCacheStats() {
+        return ResponseEntity.ok(itemService.getCatalogCacheStats());
     }
     
     @PostMapping("/update-stock")
@@ -146,6 +216,27 @@ public class ItemController {
         }
     }
     
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+    
+    // The body stays a plain list; paging links and the optional total travel in headers
+    private ResponseEntity<List<ItemSummary>> toPageResponse(Slice<ItemSummary> slice) {
+        return ResponseEntity.ok()
+                .headers(PageHeaders.forSlice(slice))
+                .cacheControl(ConditionalRequests.REVALIDATE)
+                .body(slice.getContent());
+    }
+    
+    // Single items come from the catalog cache, so their validator costs nothing extra
+    private ResponseEntity<Item> toItemResponse(Item item, WebRequest request) {
+        if (ConditionalRequests.notModified(request, "item-" + item.getId(), item.getUpdatedAt())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ConditionalRequests.REVALIDATE).body(item);
+    }
+    
     // Inner class for stock update request
     public static class StockUpdateRequest {
         private int currentStock;
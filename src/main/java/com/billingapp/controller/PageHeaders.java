@@ -0,0 +1,72 @@
+package com.billingapp.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paging metadata for list endpoints. The body stays a plain JSON array; the position of
+ * the neighbouring pages goes into an RFC 8288 {@code Link} header and the optional total
+ * into {@code X-Total-Count}.
+ */
+final class PageHeaders {
+
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private PageHeaders() {}
+
+    /**
+     * Headers for an offset page. First/last links and the total are only added when the
+     * slice is a counted {@link Page}.
+     */
+    static HttpHeaders forSlice(Slice<?> slice) {
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(link(pageUrl(slice.getNumber() + 1), "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(link(pageUrl(slice.getNumber() - 1), "prev"));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (slice instanceof Page<?> page) {
+            links.add(link(pageUrl(0), "first"));
+            links.add(link(pageUrl(Math.max(0, page.getTotalPages() - 1)), "last"));
+            headers.set(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalElements()));
+        }
+        if (!links.isEmpty()) {
+            headers.set(HttpHeaders.LINK, String.join(", ", links));
+        }
+        return headers;
+    }
+
+    /**
+     * Headers for a keyset page: a next link carrying the cursor, and the total when it was counted.
+     */
+    static HttpHeaders forCursor(String nextCursor, Long totalCount) {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            String url = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", nextCursor)
+                    .toUriString();
+            headers.set(HttpHeaders.LINK, link(url, "next"));
+        }
+        if (totalCount != null) {
+            headers.set(TOTAL_COUNT_HEADER, String.valueOf(totalCount));
+        }
+        return headers;
+    }
+
+    private static String pageUrl(int page) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", page)
+                .toUriString();
+    }
+
+    private static String link(String url, String rel) {
+        return "<" + url + ">; rel=\"" + rel + "\"";
+    }
+}
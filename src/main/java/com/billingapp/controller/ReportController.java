@@ -0,0 +1,183 @@
+package com.billingapp.controller;
+
+import com.billingapp.dto.ItemSalesStats;
+import com.billingapp.dto.SalesSummary;
+import com.billingapp.service.ItemSalesService;
+import com.billingapp.service.SalesReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReportController {
+
+    private final SalesReportService salesReportService;
+    private final ItemSalesService itemSalesService;
+    private static final Logger log = LoggerFactory.getLogger(ReportController.class);
+
+    @Autowired
+    public ReportController(SalesReportService salesReportService, ItemSalesService itemSalesService) {
+        this.salesReportService = salesReportService;
+        this.itemSalesService = itemSalesService;
+    }
+
+    /**
+     * Revenue, tax and discount totals per day, week or month, overall and per bill type.
+     */
+    @GetMapping("/sales")
+    public ResponseEntity<?> getSalesSummary(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String type) {
+        try {
+            SalesSummary summary = salesReportService.getSummary(startDate, endDate, granularity, type);
+            return ResponseEntity.ok(summary);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error building sales summary: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error building sales summary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute the sales rollup from the bills table. Without dates the whole history is rebuilt.
+     */
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<?> rebuildSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            int rows = salesReportService.rebuild(startDate, endDate);
+            return ResponseEntity.ok(Map.of("rows", rows));
+        } catch (Exception e) {
+            log.error("Error rebuilding sales rollup: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error rebuilding sales rollup: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Best-selling items by units ({@code rankBy=quantity}) or revenue. The window is
+     * {@code [startDate, endDate]}; without dates it is the last {@code days} days up to today.
+     */
+    @GetMapping("/items/top-sellers")
+    public ResponseEntity<?> getTopSellers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "" + ItemSalesService.DEFAULT_WINDOW_DAYS) int days,
+            @RequestParam(defaultValue = "quantity") String rankBy,
+            @RequestParam(defaultValue = "" + ItemSalesService.DEFAULT_LIMIT) int limit) {
+        try {
+            LocalDate end = windowEnd(endDate);
+            return ResponseEntity.ok(itemSalesService.getTopSellers(windowStart(startDate, end, days), end, rankBy, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error reading top sellers: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reading top sellers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Items in stock that sold least in the window, unsold items first.
+     */
+    @GetMapping("/items/slow-movers")
+    public ResponseEntity<?> getSlowMovers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "" + ItemSalesService.DEFAULT_LIMIT) int limit) {
+        try {
+            LocalDate end = windowEnd(endDate);
+            return ResponseEntity.ok(itemSalesService.getSlowMovers(windowStart(startDate, end, days), end, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error reading slow movers: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reading slow movers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Items that run out soonest at their average daily sales over the window.
+     */
+    @GetMapping("/items/days-of-stock")
+    public ResponseEntity<?> getDaysOfStock(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "28") int days,
+            @RequestParam(defaultValue = "" + ItemSalesService.DEFAULT_LIMIT) int limit) {
+        try {
+            LocalDate end = windowEnd(endDate);
+            return ResponseEntity.ok(itemSalesService.getDaysOfStock(windowStart(startDate, end, days), end, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error reading days of stock: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reading days of stock: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/items/{id}/velocity")
+    public ResponseEntity<?> getItemVelocity(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "28") int days) {
+        try {
+            LocalDate end = windowEnd(endDate);
+            Optional<ItemSalesStats> stats = itemSalesService.getItemStats(id, windowStart(startDate, end, days), end);
+            if (stats.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(stats.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute per-item daily sales from bill lines. Without dates the whole history is rebuilt.
+     */
+    @PostMapping("/items/rebuild")
+    public ResponseEntity<?> rebuildItemSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            int rows = itemSalesService.rebuild(startDate, endDate);
+            return ResponseEntity.ok(Map.of("rows", rows));
+        } catch (Exception e) {
+            log.error("Error rebuilding item sales: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body("Error rebuilding item sales: " + e.getMessage());
+        }
+    }
+
+    private static LocalDate windowEnd(LocalDate endDate) {
+        return endDate != null ? endDate : LocalDate.now();
+    }
+
+    private static LocalDate windowStart(LocalDate startDate, LocalDate end, int days) {
+        if (startDate != null) {
+            return startDate;
+        }
+        if (days < 1) {
+            throw new IllegalArgumentException("days must be at least 1");
+        }
+        return end.minusDays(days - 1L);
+    }
+}
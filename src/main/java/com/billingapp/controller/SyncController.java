@@ -0,0 +1,57 @@
+package com.billingapp.controller;
+
+import com.billingapp.service.SyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Change feeds for offline tills. A till starts without {@code since}, applies each batch,
+ * keeps {@code nextCursor} and passes it as {@code since} on the next call.
+ */
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SyncController {
+
+    private final SyncService syncService;
+    private static final Logger log = LoggerFactory.getLogger(SyncController.class);
+
+    @Autowired
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping("/items")
+    public ResponseEntity<?> syncItems(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + SyncService.DEFAULT_LIMIT) int limit) {
+        try {
+            return ResponseEntity.ok(syncService.itemChanges(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error reading item changes: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reading item changes: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/bills")
+    public ResponseEntity<?> syncBills(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + SyncService.DEFAULT_LIMIT) int limit) {
+        try {
+            return ResponseEntity.ok(syncService.billChanges(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error reading bill changes: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reading bill changes: " + e.getMessage());
+        }
+    }
+}
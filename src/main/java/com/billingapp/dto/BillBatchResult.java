@@ -0,0 +1,78 @@
+package com.billingapp.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of one bill in a {@code POST /api/bills/batch} request.
+ */
+public class BillBatchResult {
+
+    public enum Status {
+        /** Saved by this request */
+        CREATED,
+        /** Already saved earlier, or repeated within the batch; nothing was changed */
+        DUPLICATE,
+        /** Valid, but not enough stock for at least one line */
+        REJECTED,
+        /** Failed validation */
+        INVALID
+    }
+
+    private int index;
+    private String billNumber;
+    private Status status;
+    private Long billId;
+    private List<String> errors = List.of();
+
+    // Default constructor for JSON deserialization
+    public BillBatchResult() {}
+
+    public BillBatchResult(int index, String billNumber, Status status, Long billId, List<String> errors) {
+        this.index = index;
+        this.billNumber = billNumber;
+        this.status = status;
+        this.billId = billId;
+        this.errors = errors;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getBillNumber() {
+        return billNumber;
+    }
+
+    public void setBillNumber(String billNumber) {
+        this.billNumber = billNumber;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getBillId() {
+        return billId;
+    }
+
+    public void setBillId(Long billId) {
+        this.billId = billId;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,44 @@
+package com.billingapp.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the bill listing, which is ordered by (billDate DESC, id DESC).
+ * Serialized as an opaque URL-safe token so clients just echo it back.
+ */
+public class BillCursor {
+
+    private final LocalDateTime billDate;
+    private final Long id;
+
+    public BillCursor(LocalDateTime billDate, Long id) {
+        this.billDate = billDate;
+        this.id = id;
+    }
+
+    public LocalDateTime getBillDate() {
+        return billDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = billDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BillCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new BillCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
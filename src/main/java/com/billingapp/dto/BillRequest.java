@@ -14,7 +14,7 @@ import java.util.List;
 
 public class BillRequest {
     
-    @NotBlank(message = "Bill number is required")
+    // Optional for single bills (one is generated); required in batches, where it is the dedupe key
     private String billNumber;
     
     @NotBlank(message = "Customer name is required")
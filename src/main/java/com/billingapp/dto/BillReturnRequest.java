@@ -0,0 +1,99 @@
+package com.billingapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Goods brought back against one bill: which of its lines, and how many units of each.
+ */
+public class BillReturnRequest {
+
+    @NotNull(message = "Bill ID is required")
+    private Long billId;
+
+    @NotEmpty(message = "Lines cannot be empty")
+    @Valid
+    private List<ReturnLineRequest> lines = new ArrayList<>();
+
+    @Size(max = 255, message = "Reason must be at most 255 characters")
+    private String reason;
+
+    // Optional; defaults to now
+    private LocalDateTime returnDate;
+
+    public BillReturnRequest() {}
+
+    // Getters and Setters
+    public Long getBillId() {
+        return billId;
+    }
+
+    public void setBillId(Long billId) {
+        this.billId = billId;
+    }
+
+    public List<ReturnLineRequest> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<ReturnLineRequest> lines) {
+        this.lines = lines;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public LocalDateTime getReturnDate() {
+        return returnDate;
+    }
+
+    public void setReturnDate(LocalDateTime returnDate) {
+        this.returnDate = returnDate;
+    }
+
+    public static class ReturnLineRequest {
+        // Id of the bill line (not the item), as returned with the bill
+        @NotNull(message = "Bill item ID is required")
+        private Long billItemId;
+
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        private Integer quantity;
+
+        public ReturnLineRequest() {}
+
+        public ReturnLineRequest(Long billItemId, Integer quantity) {
+            this.billItemId = billItemId;
+            this.quantity = quantity;
+        }
+
+        // Getters and Setters
+        public Long getBillItemId() {
+            return billItemId;
+        }
+
+        public void setBillItemId(Long billItemId) {
+            this.billItemId = billItemId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.billingapp.dto;
+
+import com.billingapp.entity.Bill;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Header of a bill without its lines, as pushed to dashboards when a bill is saved.
+ */
+public class BillSummary {
+
+    private final Long id;
+    private final String billNumber;
+    private final String customerName;
+    private final String type;
+    private final BigDecimal grandTotal;
+    private final LocalDateTime billDate;
+    private final int itemCount;
+
+    public BillSummary(Long id, String billNumber, String customerName, String type,
+                       BigDecimal grandTotal, LocalDateTime billDate, int itemCount) {
+        this.id = id;
+        this.billNumber = billNumber;
+        this.customerName = customerName;
+        this.type = type;
+        this.grandTotal = grandTotal;
+        this.billDate = billDate;
+        this.itemCount = itemCount;
+    }
+
+    public static BillSummary fromEntity(Bill bill) {
+        return new BillSummary(bill.getId(), bill.getBillNumber(), bill.getCustomerName(), bill.getType(),
+                bill.getGrandTotal(), bill.getBillDate(), bill.getItems() != null ? bill.getItems().size() : 0);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getBillNumber() {
+        return billNumber;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public BigDecimal getGrandTotal() {
+        return grandTotal;
+    }
+
+    public LocalDateTime getBillDate() {
+        return billDate;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+}
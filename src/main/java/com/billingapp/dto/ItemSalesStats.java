@@ -0,0 +1,94 @@
+package com.billingapp.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Sales of one item over a window of days, next to its current stock. Built by JPQL
+ * constructor expressions over {@code item_sales_daily}; {@link #over(int)} adds the
+ * per-day rate and how long the stock lasts at that rate.
+ */
+public class ItemSalesStats {
+
+    private final Long itemId;
+    private final String itemName;
+    private final String unit;
+    private final Integer currentStock;
+    private final long quantitySold;
+    private final BigDecimal revenue;
+    private final long billCount;
+    private final Double averageDailyQuantity;
+    // Null when nothing sold in the window, i.e. the stock does not run out at the current rate
+    private final Double daysOfStock;
+
+    public ItemSalesStats(Long itemId, String itemName, String unit, Integer currentStock,
+                          Number quantitySold, Number revenue, Number billCount) {
+        this(itemId, itemName, unit, currentStock,
+                quantitySold != null ? quantitySold.longValue() : 0L,
+                revenue != null ? new BigDecimal(revenue.toString()) : BigDecimal.ZERO,
+                billCount != null ? billCount.longValue() : 0L,
+                null, null);
+    }
+
+    private ItemSalesStats(Long itemId, String itemName, String unit, Integer currentStock, long quantitySold,
+                           BigDecimal revenue, long billCount, Double averageDailyQuantity, Double daysOfStock) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.unit = unit;
+        this.currentStock = currentStock;
+        this.quantitySold = quantitySold;
+        this.revenue = revenue;
+        this.billCount = billCount;
+        this.averageDailyQuantity = averageDailyQuantity;
+        this.daysOfStock = daysOfStock;
+    }
+
+    /**
+     * The same figures with the daily rate and days of stock for a window of {@code days} days.
+     */
+    public ItemSalesStats over(int days) {
+        double perDay = (double) quantitySold / days;
+        Double remaining = null;
+        if (perDay > 0) {
+            remaining = Math.max(0, currentStock != null ? currentStock : 0) / perDay;
+        }
+        return new ItemSalesStats(itemId, itemName, unit, currentStock, quantitySold, revenue, billCount,
+                perDay, remaining);
+    }
+
+    // Getters
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public Integer getCurrentStock() {
+        return currentStock;
+    }
+
+    public long getQuantitySold() {
+        return quantitySold;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public long getBillCount() {
+        return billCount;
+    }
+
+    public Double getAverageDailyQuantity() {
+        return averageDailyQuantity;
+    }
+
+    public Double getDaysOfStock() {
+        return daysOfStock;
+    }
+}
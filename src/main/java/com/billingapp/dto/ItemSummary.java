@@ -0,0 +1,102 @@
+package com.billingapp.dto;
+
+import com.billingapp.entity.Item;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an item for the list endpoints. Built straight from the selected
+ * columns, so no entity is hydrated or tracked by the persistence context.
+ */
+public class ItemSummary {
+    private final Long id;
+    private final String itemName;
+    private final String category;
+    private final BigDecimal purchasePrice;
+    private final BigDecimal mrp;
+    private final BigDecimal sellPrice;
+    private final BigDecimal minSellPrice;
+    private final Integer currentStock;
+    private final Integer minStockLevel;
+    private final String unit;
+    private final String barcode;
+    private final LocalDateTime updatedAt;
+
+    // Used by the JPQL constructor expressions in ItemRepository
+    public ItemSummary(Long id, String itemName, String category, BigDecimal purchasePrice, BigDecimal mrp,
+                       BigDecimal sellPrice, BigDecimal minSellPrice, Integer currentStock,
+                       Integer minStockLevel, String unit, String barcode, LocalDateTime updatedAt) {
+        this.id = id;
+        this.itemName = itemName;
+        this.category = category;
+        this.purchasePrice = purchasePrice;
+        this.mrp = mrp;
+        this.sellPrice = sellPrice;
+        this.minSellPrice = minSellPrice;
+        this.currentStock = currentStock;
+        this.minStockLevel = minStockLevel;
+        this.unit = unit;
+        this.barcode = barcode;
+        this.updatedAt = updatedAt;
+    }
+
+    public static ItemSummary fromEntity(Item item) {
+        return new ItemSummary(item.getId(), item.getItemName(), item.getCategory(), item.getPurchasePrice(),
+                item.getMrp(), item.getSellPrice(), item.getMinSellPrice(), item.getCurrentStock(),
+                item.getMinStockLevel(), item.getUnit(), item.getBarcode(), item.getUpdatedAt());
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public BigDecimal getPurchasePrice() {
+        return purchasePrice;
+    }
+
+    public BigDecimal getMrp() {
+        return mrp;
+    }
+
+    public BigDecimal getSellPrice() {
+        return sellPrice;
+    }
+
+    public BigDecimal getMinSellPrice() {
+        return minSellPrice;
+    }
+
+    public Integer getCurrentStock() {
+        return currentStock;
+    }
+
+    public Integer getMinStockLevel() {
+        return minStockLevel;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean isLowStock() {
+        return currentStock != null && minStockLevel != null && currentStock <= minStockLevel;
+    }
+}
@@ -0,0 +1,46 @@
+package com.billingapp.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page and
+ * {@code totalCount} is null unless the caller asked for the (extra) count query.
+ */
+public class KeysetPage<T> {
+
+    /**
+     * Largest page any list endpoint returns, keyset or offset paged; the same value as
+     * {@code spring.data.web.pageable.max-page-size}.
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final Long totalCount;
+
+    public KeysetPage(List<T> content, String nextCursor) {
+        this(content, nextCursor, null);
+    }
+
+    public KeysetPage(List<T> content, String nextCursor, Long totalCount) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.totalCount = totalCount;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
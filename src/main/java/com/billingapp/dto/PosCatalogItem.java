@@ -0,0 +1,50 @@
+package com.billingapp.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of the compact catalog a till downloads to scan and price items offline.
+ */
+public class PosCatalogItem {
+    private final Long id;
+    private final String name;
+    private final String barcode;
+    private final BigDecimal sellPrice;
+    private final Integer stock;
+    private final String unit;
+
+    // Used by the JPQL constructor expression in ItemRepository
+    public PosCatalogItem(Long id, String name, String barcode, BigDecimal sellPrice, Integer stock, String unit) {
+        this.id = id;
+        this.name = name;
+        this.barcode = barcode;
+        this.sellPrice = sellPrice;
+        this.stock = stock;
+        this.unit = unit;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public BigDecimal getSellPrice() {
+        return sellPrice;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+}
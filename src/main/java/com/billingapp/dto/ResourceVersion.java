@@ -0,0 +1,48 @@
+package com.billingapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Cheap validator for a resource or collection: how many rows it has and when the newest
+ * of them changed. Read with an aggregate query so conditional GETs never build the body.
+ */
+public class ResourceVersion {
+    private final long count;
+    private final LocalDateTime lastModified;
+
+    // Used by the JPQL constructor expressions for collections
+    public ResourceVersion(long count, LocalDateTime lastModified) {
+        this.count = count;
+        this.lastModified = lastModified;
+    }
+
+    // Used by the JPQL constructor expressions for a single row
+    public ResourceVersion(LocalDateTime lastModified) {
+        this(1, lastModified);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResourceVersion other)) {
+            return false;
+        }
+        return count == other.count && Objects.equals(lastModified, other.lastModified);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, lastModified);
+    }
+}
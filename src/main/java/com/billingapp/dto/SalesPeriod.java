@@ -0,0 +1,62 @@
+package com.billingapp.dto;
+
+import com.billingapp.entity.SalesDailyRollup;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sales of one day, week or month, in total and per bill type.
+ */
+public class SalesPeriod {
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private SalesTotals total = new SalesTotals();
+    private Map<String, SalesTotals> byType = new TreeMap<>();
+
+    public SalesPeriod() {}
+
+    public SalesPeriod(LocalDate periodStart, LocalDate periodEnd) {
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+    }
+
+    public void add(SalesDailyRollup day) {
+        total.add(day);
+        byType.computeIfAbsent(day.getType(), type -> new SalesTotals()).add(day);
+    }
+
+    // Getters and Setters
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public void setPeriodEnd(LocalDate periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    public SalesTotals getTotal() {
+        return total;
+    }
+
+    public void setTotal(SalesTotals total) {
+        this.total = total;
+    }
+
+    public Map<String, SalesTotals> getByType() {
+        return byType;
+    }
+
+    public void setByType(Map<String, SalesTotals> byType) {
+        this.byType = byType;
+    }
+}
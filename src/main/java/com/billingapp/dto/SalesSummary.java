@@ -0,0 +1,47 @@
+package com.billingapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sales over a date range: the whole range as one period, plus one period per day, week or
+ * month that had sales.
+ */
+public class SalesSummary {
+    private String granularity;
+    private SalesPeriod range;
+    private List<SalesPeriod> periods = new ArrayList<>();
+
+    public SalesSummary() {}
+
+    public SalesSummary(String granularity, SalesPeriod range, List<SalesPeriod> periods) {
+        this.granularity = granularity;
+        this.range = range;
+        this.periods = periods;
+    }
+
+    // Getters and Setters
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public SalesPeriod getRange() {
+        return range;
+    }
+
+    public void setRange(SalesPeriod range) {
+        this.range = range;
+    }
+
+    public List<SalesPeriod> getPeriods() {
+        return periods;
+    }
+
+    public void setPeriods(List<SalesPeriod> periods) {
+        this.periods = periods;
+    }
+}
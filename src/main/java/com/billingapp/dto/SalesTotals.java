@@ -0,0 +1,85 @@
+package com.billingapp.dto;
+
+import com.billingapp.entity.SalesDailyRollup;
+
+import java.math.BigDecimal;
+
+public class SalesTotals {
+    private long billCount;
+    private long returnCount;
+    private BigDecimal subtotal = BigDecimal.ZERO;
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+    private BigDecimal grandTotal = BigDecimal.ZERO;
+    // Refunded by the returns; already taken off the amounts above
+    private BigDecimal refundTotal = BigDecimal.ZERO;
+
+    public SalesTotals() {}
+
+    public void add(SalesDailyRollup day) {
+        billCount += day.getBillCount();
+        returnCount += day.getReturnCount();
+        subtotal = subtotal.add(day.getSubtotal());
+        taxAmount = taxAmount.add(day.getTaxAmount());
+        discountAmount = discountAmount.add(day.getDiscountAmount());
+        grandTotal = grandTotal.add(day.getGrandTotal());
+        refundTotal = refundTotal.add(day.getRefundTotal());
+    }
+
+    // Getters and Setters
+    public long getBillCount() {
+        return billCount;
+    }
+
+    public void setBillCount(long billCount) {
+        this.billCount = billCount;
+    }
+
+    public long getReturnCount() {
+        return returnCount;
+    }
+
+    public void setReturnCount(long returnCount) {
+        this.returnCount = returnCount;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getTaxAmount() {
+        return taxAmount;
+    }
+
+    public void setTaxAmount(BigDecimal taxAmount) {
+        this.taxAmount = taxAmount;
+    }
+
+    public BigDecimal getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public void setDiscountAmount(BigDecimal discountAmount) {
+        this.discountAmount = discountAmount;
+    }
+
+    public BigDecimal getGrandTotal() {
+        return grandTotal;
+    }
+
+    public void setGrandTotal(BigDecimal grandTotal) {
+        this.grandTotal = grandTotal;
+    }
+
+    public BigDecimal getRefundTotal() {
+        return refundTotal;
+    }
+
+    public void setRefundTotal(BigDecimal refundTotal) {
+        this.refundTotal = refundTotal;
+    }
+}
@@ -0,0 +1,48 @@
+package com.billingapp.dto;
+
+/**
+ * Stock on hand of an item next to its reorder level.
+ */
+public class StockLevel {
+
+    private final Long itemId;
+    private final String itemName;
+    private final int currentStock;
+    private final int minStockLevel;
+
+    public StockLevel(Long itemId, String itemName, Integer currentStock, Integer minStockLevel) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.currentStock = currentStock != null ? currentStock : 0;
+        this.minStockLevel = minStockLevel != null ? minStockLevel : 0;
+    }
+
+    /**
+     * The same item with another stock figure, e.g. the stock ledger's when it is ahead of the table.
+     */
+    public StockLevel withCurrentStock(int stock) {
+        return new StockLevel(itemId, itemName, stock, minStockLevel);
+    }
+
+    // Same rule as Item.isLowStock
+    public boolean isLowStock() {
+        return currentStock <= minStockLevel;
+    }
+
+    // Getters
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public int getCurrentStock() {
+        return currentStock;
+    }
+
+    public int getMinStockLevel() {
+        return minStockLevel;
+    }
+}
@@ -0,0 +1,63 @@
+package com.billingapp.dto;
+
+public class StockShortage {
+    private Long itemId;
+    private String itemName;
+    private int requested;
+    private Integer available;
+
+    // Default constructor for JSON deserialization
+    public StockShortage() {}
+
+    public StockShortage(Long itemId, String itemName, int requested, Integer available) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.requested = requested;
+        this.available = available;
+    }
+
+    // Getters and Setters
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    /**
+     * Stock on hand when the decrement was attempted, or null if the item does not exist.
+     */
+    public Integer getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Integer available) {
+        this.available = available;
+    }
+
+    @Override
+    public String toString() {
+        if (available == null) {
+            return "Item not found with id: " + itemId;
+        }
+        return "Insufficient stock for item " + (itemName != null ? itemName : itemId) +
+                ". Requested: " + requested + ", Available: " + available;
+    }
+}
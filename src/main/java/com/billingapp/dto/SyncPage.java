@@ -0,0 +1,47 @@
+package com.billingapp.dto;
+
+import java.util.List;
+
+/**
+ * One batch of a sync feed: rows created or changed since the cursor, and ids deleted
+ * since the cursor. The till applies both, stores {@code nextCursor} and asks again
+ * while {@code hasMore} is true. {@code reset} means the cursor was older than the
+ * retained deletions: the feed restarted from the beginning and the till should
+ * replace its copy rather than merge into it.
+ */
+public class SyncPage<T> {
+    private final List<T> changed;
+    private final List<Long> deleted;
+    private final String nextCursor;
+    private final boolean hasMore;
+    private final boolean reset;
+
+    public SyncPage(List<T> changed, List<Long> deleted, String nextCursor, boolean hasMore, boolean reset) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.reset = reset;
+    }
+
+    // Getters
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+}
@@ -14,8 +14,10 @@ import java.util.List;
 @Table(name = "bills")
 public class Bill {
     
+    // Pooled: one sequence call per 50 rows, and inserts can be batched (IDENTITY prevents that)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bills_seq")
+    @SequenceGenerator(name = "bills_seq", sequenceName = "bills_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "bill_number", nullable = false, unique = true)
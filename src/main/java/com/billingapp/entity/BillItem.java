@@ -11,8 +11,10 @@ import java.math.BigDecimal;
 @Table(name = "bill_items")
 public class BillItem {
     
+    // Pooled sequence, as for Bill
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_items_seq")
+    @SequenceGenerator(name = "bill_items_seq", sequenceName = "bill_items_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "item_id", nullable = false)
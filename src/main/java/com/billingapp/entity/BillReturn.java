@@ -0,0 +1,71 @@
+package com.billingapp.entity;
+
+import com.fasterxml.jackson.annotation.JsonManagedReference;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A credit note: goods brought back against a bill. Amounts are the bill's, pro rata to the
+ * returned lines, and {@code grandTotal} is what is refunded (or taken off a credit account).
+ * Created by {@link com.billingapp.service.BillReturnService}.
+ */
+@Data
+@Entity
+@Table(name = "bill_returns")
+public class BillReturn {
+
+    // Pooled sequence, as for Bill
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_returns_seq")
+    @SequenceGenerator(name = "bill_returns_seq", sequenceName = "bill_returns_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "return_number", nullable = false, unique = true, length = 120)
+    private String returnNumber;
+
+    @Column(name = "bill_id", nullable = false)
+    private Long billId;
+
+    // Copied from the bill, so the sales rollups can be kept without reading it
+    @Column(name = "bill_type", nullable = false, length = 50)
+    private String billType;
+
+    private String reason;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal subtotal;
+
+    @Column(name = "tax_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "grand_total", nullable = false, precision = 10, scale = 2)
+    private BigDecimal grandTotal;
+
+    @Column(name = "return_date", nullable = false)
+    private LocalDateTime returnDate;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @OneToMany(mappedBy = "billReturn", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonManagedReference
+    private List<BillReturnItem> items = new ArrayList<>();
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public void addItem(BillReturnItem item) {
+        items.add(item);
+        item.setBillReturn(this);
+    }
+}
@@ -0,0 +1,45 @@
+package com.billingapp.entity;
+
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Data
+@Entity
+@Table(name = "bill_return_items")
+public class BillReturnItem {
+
+    // Pooled sequence, as for Bill
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_return_items_seq")
+    @SequenceGenerator(name = "bill_return_items_seq", sequenceName = "bill_return_items_id_seq", allocationSize = 50)
+    private Long id;
+
+    // The bill line this was returned from
+    @Column(name = "bill_item_id", nullable = false)
+    private Long billItemId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "item_name", nullable = false)
+    private String itemName;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Share of the bill line's total for the returned units
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal total;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "return_id", nullable = false)
+    @JsonBackReference
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BillReturn billReturn;
+}
@@ -0,0 +1,40 @@
+package com.billingapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A customer who buys on credit. {@code outstandingBalance} is kept current by
+ * {@link com.billingapp.service.CustomerLedgerService} in the same transaction as every
+ * ledger entry, so reading it never needs the bills.
+ */
+@Data
+@Entity
+@Table(name = "customers")
+public class Customer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_key", nullable = false, unique = true, length = 300)
+    private String customerKey;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "phone_number", length = 50)
+    private String phoneNumber;
+
+    @Column(name = "outstanding_balance", nullable = false, precision = 14, scale = 2)
+    private BigDecimal outstandingBalance = BigDecimal.ZERO;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.billingapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One movement on a customer's account. Positive amounts add to what the customer owes
+ * (credit bills), negative ones reduce it (payments, returns, deleted credit bills).
+ */
+@Data
+@Entity
+@Table(name = "customer_ledger")
+public class CustomerLedgerEntry {
+
+    public enum EntryType { CREDIT_BILL, PAYMENT, BILL_REVERSAL, BILL_RETURN }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private EntryType entryType;
+
+    @Column(name = "bill_id")
+    private Long billId;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after", nullable = false, precision = 14, scale = 2)
+    private BigDecimal balanceAfter;
+
+    private String note;
+
+    @Column(name = "entry_date", nullable = false)
+    private LocalDateTime entryDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
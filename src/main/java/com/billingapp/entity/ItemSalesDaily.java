@@ -0,0 +1,54 @@
+package com.billingapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Units sold and revenue of one item on one day. Rows are maintained by
+ * {@link com.billingapp.service.ItemSalesService} and are only read through JPA.
+ */
+@Data
+@Entity
+@Table(name = "item_sales_daily")
+@IdClass(ItemSalesDaily.Key.class)
+public class ItemSalesDaily {
+
+    @Id
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Id
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "bill_count", nullable = false)
+    private long billCount;
+
+    // Units returned on this day; already taken off quantity and revenue
+    @Column(name = "returned_quantity", nullable = false)
+    private long returnedQuantity;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private Long itemId;
+    }
+}
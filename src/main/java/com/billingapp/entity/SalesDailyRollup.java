@@ -0,0 +1,63 @@
+package com.billingapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totals of all bills of one type on one day. Rows are maintained by
+ * {@link com.billingapp.service.SalesReportService} and are only read through JPA.
+ */
+@Data
+@Entity
+@Table(name = "sales_daily_rollup")
+@IdClass(SalesDailyRollup.Key.class)
+public class SalesDailyRollup {
+
+    @Id
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Id
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Column(name = "bill_count", nullable = false)
+    private long billCount;
+
+    // Returns made on this day against bills of this type; their amounts are netted below
+    @Column(name = "return_count", nullable = false)
+    private long returnCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    @Column(name = "tax_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal taxAmount = BigDecimal.ZERO;
+
+    @Column(name = "discount_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal discountAmount = BigDecimal.ZERO;
+
+    @Column(name = "grand_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal grandTotal = BigDecimal.ZERO;
+
+    @Column(name = "refund_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal refundTotal = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private String type;
+    }
+}
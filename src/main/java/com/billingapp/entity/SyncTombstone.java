@@ -0,0 +1,45 @@
+package com.billingapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind when an item or bill is deleted, so the sync feed can tell tills
+ * to drop their copy. Purged by {@link com.billingapp.service.SyncService} after the
+ * retention period.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sync_tombstones")
+@IdClass(SyncTombstone.Key.class)
+public class SyncTombstone {
+
+    public static final String ITEM = "ITEM";
+    public static final String BILL = "BILL";
+
+    @Id
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    @Id
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String entityType;
+        private Long entityId;
+    }
+}
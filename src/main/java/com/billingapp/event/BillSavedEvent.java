@@ -0,0 +1,19 @@
+package com.billingapp.event;
+
+import com.billingapp.dto.BillSummary;
+
+/**
+ * Published inside the transaction that saved a new bill.
+ */
+public class BillSavedEvent {
+
+    private final BillSummary bill;
+
+    public BillSavedEvent(BillSummary bill) {
+        this.bill = bill;
+    }
+
+    public BillSummary getBill() {
+        return bill;
+    }
+}
@@ -0,0 +1,26 @@
+package com.billingapp.event;
+
+import com.billingapp.dto.StockLevel;
+
+/**
+ * Published after commit when an item crosses its reorder level: {@code low} is true when it
+ * dropped to or below {@code minStockLevel} and false when it was restocked above it.
+ */
+public class LowStockEvent {
+
+    private final StockLevel level;
+    private final boolean low;
+
+    public LowStockEvent(StockLevel level, boolean low) {
+        this.level = level;
+        this.low = low;
+    }
+
+    public StockLevel getLevel() {
+        return level;
+    }
+
+    public boolean isLow() {
+        return low;
+    }
+}
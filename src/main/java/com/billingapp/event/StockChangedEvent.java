@@ -0,0 +1,20 @@
+package com.billingapp.event;
+
+import java.util.List;
+
+/**
+ * Published inside the transaction that changed the stock of these items (sale, return,
+ * overwrite or deletion). Listeners that push the change out should wait for the commit.
+ */
+public class StockChangedEvent {
+
+    private final List<Long> itemIds;
+
+    public StockChangedEvent(List<Long> itemIds) {
+        this.itemIds = itemIds;
+    }
+
+    public List<Long> getItemIds() {
+        return itemIds;
+    }
+}
@@ -1,7 +1,25 @@
 package com.billingapp.exception;
 
+import com.billingapp.dto.StockShortage;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class InsufficientStockException extends Exception {
+    private final List<StockShortage> shortages;
+
     public InsufficientStockException(String message) {
         super(message);
+        this.shortages = Collections.emptyList();
+    }
+
+    public InsufficientStockException(List<StockShortage> shortages) {
+        super(shortages.stream().map(StockShortage::toString).collect(Collectors.joining("; ")));
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<StockShortage> getShortages() {
+        return shortages;
     }
 }
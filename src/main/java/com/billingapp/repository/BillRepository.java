@@ -1,21 +1,29 @@
 package com.billingapp.repository;
 
+import com.billingapp.dto.ResourceVersion;
 import com.billingapp.entity.Bill;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BillRepository extends JpaRepository<Bill, Long>, JpaSpecificationExecutor<Bill> {
+public interface BillRepository extends JpaRepository<Bill, Long>, JpaSpecificationExecutor<Bill>, BillRepositoryCustom {
     
     Optional<Bill> findByBillNumber(String billNumber);
     
+    @Query("SELECT new com.billingapp.dto.ResourceVersion(b.updatedAt) FROM Bill b WHERE b.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+    
     List<Bill> findByCustomerNameContainingIgnoreCase(String customerName);
     
     List<Bill> findByType(String type);
@@ -59,4 +67,24 @@ public interface BillRepository extends JpaRepository<Bill, Long>, JpaSpecificat
     @Query("SELECT DISTINCT b FROM Bill b LEFT JOIN FETCH b.items WHERE " +
            "b.type = :type ORDER BY b.billDate DESC")
     List<Bill> findBillsWithItemsByType(@Param("type") String type);
+    
+    @Query("SELECT b FROM Bill b LEFT JOIN FETCH b.items WHERE b.id = :id")
+    Optional<Bill> findByIdWithItems(@Param("id") Long id);
+    
+    // Sync feed: bills changed after the (updatedAt, id) position and before the settle horizon
+    @Query("SELECT b FROM Bill b WHERE b.updatedAt < :until " +
+           "AND (b.updatedAt > :since OR (b.updatedAt = :since AND b.id > :afterId)) " +
+           "ORDER BY b.updatedAt, b.id")
+    List<Bill> findChanges(@Param("since") LocalDateTime since,
+                           @Param("afterId") Long afterId,
+                           @Param("until") LocalDateTime until,
+                           Pageable pageable);
+    
+    @Query("SELECT DISTINCT b FROM Bill b LEFT JOIN FETCH b.items WHERE b.id IN :ids")
+    List<Bill> fetchItemsForBills(@Param("ids") List<Long> ids);
+    
+    // Serialises returns against the same bill; rows are locked in id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bill b WHERE b.id IN :ids ORDER BY b.id")
+    List<Bill> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,36 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.Bill;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface BillRepositoryCustom {
+
+    /**
+     * Fetch at most {@code limit} bills matching the specification, newest first
+     * (billDate DESC, id DESC). No count query is issued.
+     */
+    List<Bill> findSlice(Specification<Bill> spec, int limit);
+
+    /**
+     * Walk every bill newest first through a database cursor, handing them to the consumer
+     * in chunks with their items loaded. The persistence context is cleared after each chunk,
+     * so memory use depends on the chunk size and not on the number of bills.
+     */
+    void forEachChunk(int chunkSize, Consumer<List<Bill>> consumer);
+
+    /**
+     * Insert new bills and their items with JDBC batches, bypassing the persistence context.
+     * The generated ids are set on the given bills.
+     */
+    void insertBatch(List<Bill> bills);
+
+    /**
+     * Ids of the bills that already exist, keyed by bill number.
+     */
+    Map<String, Long> findIdsByBillNumbers(Collection<String> billNumbers);
+}
@@ -0,0 +1,143 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.BillItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BillRepositoryCustomImpl implements BillRepositoryCustom {
+
+    // Larger lists of bill numbers are looked up in several IN queries
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public BillRepositoryCustomImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @Override
+    public List<Bill> findSlice(Specification<Bill> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Bill> query = cb.createQuery(Bill.class);
+        Root<Bill> root = query.from(Bill.class);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("billDate")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public void forEachChunk(int chunkSize, Consumer<List<Bill>> consumer) {
+        try (Stream<Bill> bills = entityManager
+                .createQuery("SELECT b FROM Bill b ORDER BY b.billDate DESC, b.id DESC", Bill.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+
+            List<Bill> chunk = new ArrayList<>(chunkSize);
+            Iterator<Bill> iterator = bills.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    emitChunk(chunk, consumer);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                emitChunk(chunk, consumer);
+            }
+        }
+    }
+
+    private void emitChunk(List<Bill> chunk, Consumer<List<Bill>> consumer) {
+        // One fetch-join per chunk initialises the items of every bill in it
+        entityManager.createQuery("SELECT DISTINCT b FROM Bill b LEFT JOIN FETCH b.items WHERE b.id IN :ids", Bill.class)
+                .setParameter("ids", chunk.stream().map(Bill::getId).collect(Collectors.toList()))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+        consumer.accept(chunk);
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    @Override
+    public void insertBatch(List<Bill> bills) {
+        if (bills.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> billRows = new ArrayList<>(bills.size());
+        for (Bill bill : bills) {
+            billRows.add(new Object[] {bill.getBillNumber(), bill.getCustomerName(), bill.getPhoneNumber(),
+                    bill.getAddress(), bill.getSubtotal(), bill.getTaxAmount(), bill.getDiscountAmount(),
+                    bill.getGrandTotal(), bill.getType(), Timestamp.valueOf(bill.getBillDate()), now, now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO bills (id, bill_number, customer_name, phone_number, address, subtotal, tax_amount, " +
+                "discount_amount, grand_total, type, bill_date, created_at, updated_at) " +
+                "VALUES (nextval('bills_id_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", billRows);
+
+        // Bill numbers are unique, so they map the new rows back to their generated ids
+        Map<String, Long> ids = findIdsByBillNumbers(bills.stream().map(Bill::getBillNumber).collect(Collectors.toList()));
+        List<Object[]> itemRows = new ArrayList<>();
+        for (Bill bill : bills) {
+            bill.setId(ids.get(bill.getBillNumber()));
+            bill.setCreatedAt(now.toLocalDateTime());
+            bill.setUpdatedAt(now.toLocalDateTime());
+            for (BillItem item : bill.getItems()) {
+                itemRows.add(new Object[] {bill.getId(), item.getItemId(), item.getItemName(), item.getMrp(),
+                        item.getSellPrice(), item.getPrice(), item.getQuantity(), item.getTotal(), item.getUnit()});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO bill_items (id, bill_id, item_id, item_name, mrp, sell_price, price, quantity, total, unit) " +
+                "VALUES (nextval('bill_items_id_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?)", itemRows);
+    }
+
+    @Override
+    public Map<String, Long> findIdsByBillNumbers(Collection<String> billNumbers) {
+        Map<String, Long> ids = new HashMap<>();
+        List<String> numbers = new ArrayList<>(billNumbers);
+        for (int from = 0; from < numbers.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = numbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, numbers.size()));
+            namedJdbcTemplate.query(
+                    "SELECT id, bill_number FROM bills WHERE bill_number IN (:numbers)",
+                    Map.of("numbers", chunk),
+                    rs -> {
+                        ids.put(rs.getString("bill_number"), rs.getLong("id"));
+                    });
+        }
+        return ids;
+    }
+}
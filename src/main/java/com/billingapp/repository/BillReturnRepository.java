@@ -0,0 +1,29 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.BillReturn;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BillReturnRepository extends JpaRepository<BillReturn, Long> {
+
+    @Query("SELECT r FROM BillReturn r LEFT JOIN FETCH r.items WHERE r.id = :id")
+    Optional<BillReturn> findByIdWithItems(@Param("id") Long id);
+
+    // Along idx_bill_returns_bill_id
+    @Query("SELECT DISTINCT r FROM BillReturn r LEFT JOIN FETCH r.items WHERE r.billId IN :billIds ORDER BY r.id")
+    List<BillReturn> findWithItemsByBillIds(@Param("billIds") Collection<Long> billIds);
+
+    // Along idx_bill_returns_return_date
+    @Query("SELECT DISTINCT r FROM BillReturn r LEFT JOIN FETCH r.items " +
+           "WHERE r.returnDate >= :from AND r.returnDate < :until ORDER BY r.returnDate, r.id")
+    List<BillReturn> findWithItemsByReturnDate(@Param("from") LocalDateTime from,
+                                               @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,61 @@
+package com.billingapp.repository;
+
+import com.billingapp.dto.BillCursor;
+import com.billingapp.entity.Bill;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Building blocks for bill search. Each factory returns null when its filter is not set,
+ * which {@link Specification#where} and {@code and} treat as "no restriction".
+ */
+public final class BillSpecifications {
+
+    private BillSpecifications() {}
+
+    public static Specification<Bill> matchesQuery(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return null;
+        }
+        String pattern = "%" + query.trim().toLowerCase() + "%";
+        return (root, cq, cb) -> cb.or(
+                cb.like(cb.lower(root.get("billNumber")), pattern),
+                cb.like(cb.lower(root.get("customerName")), pattern),
+                cb.like(cb.lower(root.get("phoneNumber")), pattern));
+    }
+
+    public static Specification<Bill> billDateFrom(LocalDateTime start) {
+        if (start == null) {
+            return null;
+        }
+        return (root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("billDate"), start);
+    }
+
+    public static Specification<Bill> billDateBefore(LocalDateTime end) {
+        if (end == null) {
+            return null;
+        }
+        return (root, cq, cb) -> cb.lessThan(root.get("billDate"), end);
+    }
+
+    public static Specification<Bill> hasType(String type) {
+        if (type == null || type.trim().isEmpty() || "all".equals(type)) {
+            return null;
+        }
+        return (root, cq, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    /**
+     * Rows strictly after the cursor in (billDate DESC, id DESC) order.
+     */
+    public static Specification<Bill> after(BillCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, cq, cb) -> cb.or(
+                cb.lessThan(root.get("billDate"), cursor.getBillDate()),
+                cb.and(cb.equal(root.get("billDate"), cursor.getBillDate()),
+                        cb.lessThan(root.get("id"), cursor.getId())));
+    }
+}
@@ -0,0 +1,23 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.CustomerLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerLedgerRepository extends JpaRepository<CustomerLedgerEntry, Long> {
+
+    // Newest first along idx_customer_ledger_customer (customer_id, id)
+    List<CustomerLedgerEntry> findByCustomerIdOrderByIdDesc(Long customerId, Pageable pageable);
+
+    List<CustomerLedgerEntry> findByCustomerIdAndIdLessThanOrderByIdDesc(Long customerId, Long beforeId,
+                                                                         Pageable pageable);
+
+    List<CustomerLedgerEntry> findByBillIdAndEntryTypeIn(Long billId, Collection<CustomerLedgerEntry.EntryType> types);
+
+    List<CustomerLedgerEntry> findByBillIdInAndEntryType(Collection<Long> billIds, CustomerLedgerEntry.EntryType type);
+}
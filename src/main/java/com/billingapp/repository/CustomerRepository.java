@@ -0,0 +1,20 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerRepositoryCustom {
+
+    Optional<Customer> findByCustomerKey(String customerKey);
+
+    // Reads the head of idx_customers_outstanding
+    List<Customer> findByOutstandingBalanceGreaterThanOrderByOutstandingBalanceDescIdAsc(BigDecimal balance,
+                                                                                         Pageable pageable);
+}
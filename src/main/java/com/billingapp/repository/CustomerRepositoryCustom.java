@@ -0,0 +1,18 @@
+package com.billingapp.repository;
+
+import java.math.BigDecimal;
+
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Id of the customer with this key, creating the customer on first use.
+     */
+    Long resolveId(String customerKey, String name, String phoneNumber);
+
+    /**
+     * Add to a customer's outstanding balance (negative to reduce it). The row stays locked
+     * until the transaction ends, so the returned balance is the one this change produced.
+     * @return The new balance, or null if the customer does not exist
+     */
+    BigDecimal addToBalance(Long customerId, BigDecimal amount);
+}
@@ -0,0 +1,50 @@
+package com.billingapp.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomerRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Long resolveId(String customerKey, String name, String phoneNumber) {
+        Long id = findId(customerKey);
+        if (id != null) {
+            return id;
+        }
+        // Insert-or-ignore then read again, so two first bills of a customer can race safely
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(
+                "INSERT INTO customers (customer_key, name, phone_number, outstanding_balance, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 0, ?, ?) ON CONFLICT DO NOTHING",
+                customerKey, name, phoneNumber, now, now);
+        return findId(customerKey);
+    }
+
+    @Override
+    public BigDecimal addToBalance(Long customerId, BigDecimal amount) {
+        int updated = jdbcTemplate.update(
+                "UPDATE customers SET outstanding_balance = outstanding_balance + ?, updated_at = ? WHERE id = ?",
+                amount, Timestamp.valueOf(LocalDateTime.now()), customerId);
+        if (updated == 0) {
+            return null;
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT outstanding_balance FROM customers WHERE id = ?", BigDecimal.class, customerId);
+    }
+
+    private Long findId(String customerKey) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM customers WHERE customer_key = ?", Long.class, customerKey);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+}
@@ -1,18 +1,28 @@
 package com.billingapp.repository;
 
+import com.billingapp.dto.ItemSummary;
+import com.billingapp.dto.PosCatalogItem;
+import com.billingapp.dto.ResourceVersion;
+import com.billingapp.dto.StockLevel;
 import com.billingapp.entity.Item;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
     
     List<Item> findByItemNameContainingIgnoreCase(String itemName);
     
@@ -32,16 +42,61 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     
     @Modifying
     @Transactional
-    @Query("UPDATE Item i SET i.currentStock = i.currentStock - :quantity WHERE i.id = :itemId AND i.currentStock >= :quantity")
+    @Query("UPDATE Item i SET i.currentStock = i.currentStock - :quantity, i.updatedAt = LOCAL DATETIME WHERE i.id = :itemId AND i.currentStock >= :quantity")
     int reduceStock(@Param("itemId") Long itemId, @Param("quantity") int quantity);
     
     @Modifying
     @Transactional
-    @Query("UPDATE Item i SET i.currentStock = i.currentStock + :quantity WHERE i.id = :itemId")
+    @Query("UPDATE Item i SET i.currentStock = i.currentStock + :quantity, i.updatedAt = LOCAL DATETIME WHERE i.id = :itemId")
     int addStock(@Param("itemId") Long itemId, @Param("quantity") int quantity);
     
     List<Item> findByItemNameStartingWithIgnoreCase(String searchTerm);
     
     @Query("SELECT i.currentStock FROM Item i WHERE i.id = :itemId")
     Integer getCurrentStock(@Param("itemId") Long itemId);
+    
+    // Projections for the read-only list endpoints: only the listed columns are selected.
+    // Ordering comes from the Pageable, and a Slice reads one extra row instead of counting.
+    String ITEM_SUMMARY = "SELECT new com.billingapp.dto.ItemSummary(i.id, i.itemName, i.category, i.purchasePrice, "
+            + "i.mrp, i.sellPrice, i.minSellPrice, i.currentStock, i.minStockLevel, i.unit, i.barcode, i.updatedAt) "
+            + "FROM Item i";
+    
+    @Query(ITEM_SUMMARY)
+    Slice<ItemSummary> findSummaries(Pageable pageable);
+    
+    @Query(ITEM_SUMMARY + " WHERE i.category = :category")
+    Slice<ItemSummary> findSummariesByCategory(@Param("category") String category, Pageable pageable);
+    
+    @Query(ITEM_SUMMARY + " WHERE i.id IN :ids")
+    Slice<ItemSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
+    
+    // Sync feed: items changed after the (updatedAt, id) position and before the settle horizon
+    @Query(ITEM_SUMMARY + " WHERE i.updatedAt < :until "
+            + "AND (i.updatedAt > :since OR (i.updatedAt = :since AND i.id > :afterId)) ORDER BY i.updatedAt, i.id")
+    List<ItemSummary> findChanges(@Param("since") LocalDateTime since,
+                                  @Param("afterId") Long afterId,
+                                  @Param("until") LocalDateTime until,
+                                  Pageable pageable);
+    
+    long countByCategory(String category);
+    
+    // Served by the partial index idx_items_low_stock
+    @Query("SELECT i.id FROM Item i WHERE i.currentStock <= i.minStockLevel")
+    List<Long> findLowStockIds();
+    
+    @Query("SELECT new com.billingapp.dto.StockLevel(i.id, i.itemName, i.currentStock, i.minStockLevel) "
+            + "FROM Item i WHERE i.id IN :ids")
+    List<StockLevel> findStockLevels(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.billingapp.dto.PosCatalogItem(i.id, i.itemName, i.barcode, i.sellPrice, i.currentStock, i.unit) "
+            + "FROM Item i ORDER BY i.itemName, i.id")
+    List<PosCatalogItem> findPosCatalog();
+    
+    // Validator for conditional GETs on the catalog; every write path bumps updated_at
+    @Query("SELECT new com.billingapp.dto.ResourceVersion(COUNT(i), MAX(i.updatedAt)) FROM Item i")
+    ResourceVersion findCatalogVersion();
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,30 @@
+package com.billingapp.repository;
+
+import com.billingapp.dto.StockShortage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ItemRepositoryCustom {
+
+    /**
+     * Decrement stock for several items in a single JDBC batch. As with
+     * {@link ItemRepository#reduceStock}, a row is only changed if it holds enough stock.
+     * @param quantitiesByItem Quantity to take per item id
+     * @return Ids of the items that were not updated (short or missing)
+     */
+    List<Long> reduceStockBatch(Map<Long, Integer> quantitiesByItem);
+
+    /**
+     * Increment stock for several items in a single JDBC batch (returns, restocking).
+     * @param quantitiesByItem Quantity to put back per item id
+     * @return Ids of the items that were not updated because they no longer exist
+     */
+    List<Long> addStockBatch(Map<Long, Integer> quantitiesByItem);
+
+    /**
+     * Describe why the given items could not cover the requested quantities.
+     */
+    List<StockShortage> findShortages(Map<Long, Integer> requestedByItem, Collection<Long> itemIds);
+}
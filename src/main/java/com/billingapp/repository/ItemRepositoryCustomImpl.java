@@ -0,0 +1,84 @@
+package com.billingapp.repository;
+
+import com.billingapp.dto.StockShortage;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ItemRepositoryCustomImpl(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @Override
+    public List<Long> reduceStockBatch(Map<Long, Integer> quantitiesByItem) {
+        List<Long> itemIds = new ArrayList<>(quantitiesByItem.keySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            int quantity = quantitiesByItem.get(itemId);
+            args.add(new Object[] {quantity, now, itemId, quantity});
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE items SET current_stock = current_stock - ?, updated_at = ? " +
+                "WHERE id = ? AND current_stock >= ?", args);
+        return notUpdated(itemIds, counts);
+    }
+
+    @Override
+    public List<Long> addStockBatch(Map<Long, Integer> quantitiesByItem) {
+        List<Long> itemIds = new ArrayList<>(quantitiesByItem.keySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            args.add(new Object[] {quantitiesByItem.get(itemId), now, itemId});
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(
+                "UPDATE items SET current_stock = current_stock + ?, updated_at = ? WHERE id = ?", args);
+        return notUpdated(itemIds, counts);
+    }
+
+    @Override
+    public List<StockShortage> findShortages(Map<Long, Integer> requestedByItem, Collection<Long> itemIds) {
+        Map<Long, StockShortage> found = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT id, item_name, current_stock FROM items WHERE id IN (:ids)",
+                Map.of("ids", itemIds),
+                rs -> {
+                    long id = rs.getLong("id");
+                    found.put(id, new StockShortage(id, rs.getString("item_name"),
+                            requestedByItem.get(id), rs.getInt("current_stock")));
+                });
+
+        List<StockShortage> shortages = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            shortages.add(found.getOrDefault(itemId,
+                    new StockShortage(itemId, null, requestedByItem.get(itemId), null)));
+        }
+        return shortages;
+    }
+
+    private static List<Long> notUpdated(List<Long> itemIds, int[] counts) {
+        List<Long> notUpdated = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                notUpdated.add(itemIds.get(i));
+            }
+        }
+        return notUpdated;
+    }
+}
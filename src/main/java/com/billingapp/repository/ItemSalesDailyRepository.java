@@ -0,0 +1,64 @@
+package com.billingapp.repository;
+
+import com.billingapp.dto.ItemSalesStats;
+import com.billingapp.entity.ItemSalesDaily;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemSalesDailyRepository
+        extends JpaRepository<ItemSalesDaily, ItemSalesDaily.Key>, ItemSalesDailyRepositoryCustom {
+
+    // Items with net sales in the window; reads the (sale_date, item_id) primary key range. Returns
+    // are netted in, so items returned as much as (or more than) they sold in the window are left out
+    String SOLD_ITEMS = "SELECT new com.billingapp.dto.ItemSalesStats(i.id, i.itemName, i.unit, i.currentStock, " +
+            "SUM(d.quantity), SUM(d.revenue), SUM(d.billCount)) " +
+            "FROM ItemSalesDaily d JOIN Item i ON i.id = d.itemId " +
+            "WHERE d.saleDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY i.id, i.itemName, i.unit, i.currentStock " +
+            "HAVING SUM(d.quantity) > 0 ";
+
+    // Every item, with zeros for those not sold in the window
+    String ALL_ITEMS = "SELECT new com.billingapp.dto.ItemSalesStats(i.id, i.itemName, i.unit, i.currentStock, " +
+            "SUM(d.quantity), SUM(d.revenue), SUM(d.billCount)) " +
+            "FROM Item i LEFT JOIN ItemSalesDaily d ON d.itemId = i.id " +
+            "AND d.saleDate BETWEEN :startDate AND :endDate ";
+
+    String ALL_ITEMS_GROUP_BY = "GROUP BY i.id, i.itemName, i.unit, i.currentStock ";
+
+    @Query(SOLD_ITEMS + "ORDER BY SUM(d.quantity) DESC, i.id")
+    List<ItemSalesStats> findTopByQuantity(@Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           Pageable pageable);
+
+    @Query(SOLD_ITEMS + "ORDER BY SUM(d.revenue) DESC, i.id")
+    List<ItemSalesStats> findTopByRevenue(@Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          Pageable pageable);
+
+    // Stock divided by units sold orders items the same way as days of stock left. The sort key
+    // may be computed before HAVING drops the groups that netted to zero, hence the NULLIF
+    @Query(SOLD_ITEMS + "ORDER BY i.currentStock * 1.0 / NULLIF(SUM(d.quantity), 0), i.id")
+    List<ItemSalesStats> findByDaysOfStock(@Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           Pageable pageable);
+
+    // Items in stock that sold least, biggest stock first among equals
+    @Query(ALL_ITEMS + "WHERE i.currentStock > 0 " + ALL_ITEMS_GROUP_BY +
+           "ORDER BY COALESCE(SUM(d.quantity), 0), i.currentStock DESC, i.id")
+    List<ItemSalesStats> findSlowMovers(@Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate,
+                                        Pageable pageable);
+
+    @Query(ALL_ITEMS + "WHERE i.id = :itemId " + ALL_ITEMS_GROUP_BY)
+    Optional<ItemSalesStats> findByItemId(@Param("itemId") Long itemId,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,23 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.ItemSalesDaily;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface ItemSalesDailyRepositoryCustom {
+
+    /**
+     * Add each row's quantity, revenue, bill count and returned quantity to the matching day and
+     * item, creating rows on first use. Rows with a negative bill count or returned quantity take
+     * sales or returns back out.
+     */
+    void addToDays(Collection<ItemSalesDaily> rows);
+
+    /**
+     * Recompute the rows of {@code [startDate, endDate]} from bills, returns and their items. Null
+     * bounds mean unbounded.
+     * @return Number of rows written
+     */
+    int rebuild(LocalDate startDate, LocalDate endDate);
+}
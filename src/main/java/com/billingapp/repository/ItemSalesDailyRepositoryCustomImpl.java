@@ -0,0 +1,119 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.ItemSalesDaily;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class ItemSalesDailyRepositoryCustomImpl implements ItemSalesDailyRepositoryCustom {
+
+    private static final String ADD_TO_DAY =
+            "UPDATE item_sales_daily SET quantity = quantity + ?, revenue = revenue + ?, " +
+            "bill_count = bill_count + ?, returned_quantity = returned_quantity + ?, updated_at = ? " +
+            "WHERE sale_date = ? AND item_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ItemSalesDailyRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addToDays(Collection<ItemSalesDaily> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<ItemSalesDaily> ordered = new ArrayList<>(rows);
+        List<Object[]> updates = new ArrayList<>(ordered.size());
+        for (ItemSalesDaily row : ordered) {
+            updates.add(updateArgs(row, now));
+        }
+
+        // Same scheme as the sales rollup, with the updates of a whole bill in one batch:
+        // only items sold for the first time that day fall through to insert-or-ignore
+        int[] updated = jdbcTemplate.batchUpdate(ADD_TO_DAY, updates);
+        boolean reversal = false;
+        for (int i = 0; i < ordered.size(); i++) {
+            ItemSalesDaily row = ordered.get(i);
+            reversal |= row.getBillCount() < 0 || row.getReturnedQuantity() < 0;
+            if (updated[i] != 0) {
+                continue;
+            }
+            int inserted = jdbcTemplate.update(
+                    "INSERT INTO item_sales_daily (sale_date, item_id, quantity, revenue, bill_count, " +
+                    "returned_quantity, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING",
+                    Date.valueOf(row.getSaleDate()), row.getItemId(), row.getQuantity(), row.getRevenue(),
+                    row.getBillCount(), row.getReturnedQuantity(), now);
+            if (inserted == 0) {
+                jdbcTemplate.update(ADD_TO_DAY, updates.get(i));
+            }
+        }
+        if (reversal) {
+            // Drop days whose last sale or return of an item was taken back
+            List<Date> days = ordered.stream().map(row -> Date.valueOf(row.getSaleDate())).distinct().toList();
+            jdbcTemplate.update("DELETE FROM item_sales_daily WHERE bill_count <= 0 AND returned_quantity <= 0 " +
+                    "AND sale_date IN (" +
+                    String.join(", ", Collections.nCopies(days.size(), "?")) + ")", days.toArray());
+        }
+    }
+
+    @Override
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        StringBuilder rowRange = new StringBuilder(" WHERE 1 = 1");
+        StringBuilder billRange = new StringBuilder(" WHERE 1 = 1");
+        StringBuilder returnRange = new StringBuilder(" WHERE 1 = 1");
+        List<Object> rowArgs = new ArrayList<>();
+        List<Object> billArgs = new ArrayList<>();
+        List<Object> returnArgs = new ArrayList<>();
+        if (startDate != null) {
+            rowRange.append(" AND sale_date >= ?");
+            rowArgs.add(Date.valueOf(startDate));
+            billRange.append(" AND b.bill_date >= ?");
+            billArgs.add(Timestamp.valueOf(startDate.atStartOfDay()));
+            returnRange.append(" AND r.return_date >= ?");
+            returnArgs.add(Timestamp.valueOf(startDate.atStartOfDay()));
+        }
+        if (endDate != null) {
+            rowRange.append(" AND sale_date <= ?");
+            rowArgs.add(Date.valueOf(endDate));
+            billRange.append(" AND b.bill_date < ?");
+            billArgs.add(Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+            returnRange.append(" AND r.return_date < ?");
+            returnArgs.add(Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+        }
+
+        List<Object> insertArgs = new ArrayList<>();
+        insertArgs.add(Timestamp.valueOf(LocalDateTime.now()));
+        insertArgs.addAll(billArgs);
+        insertArgs.addAll(returnArgs);
+
+        jdbcTemplate.update("DELETE FROM item_sales_daily" + rowRange, rowArgs.toArray());
+        // Returned lines carry no bill id, so COUNT(DISTINCT bill_id) counts the sales only
+        return jdbcTemplate.update(
+                "INSERT INTO item_sales_daily (sale_date, item_id, quantity, revenue, bill_count, " +
+                "returned_quantity, updated_at) " +
+                "SELECT sale_date, item_id, SUM(quantity), SUM(revenue), COUNT(DISTINCT bill_id), " +
+                "SUM(returned_quantity), ? FROM (" +
+                "SELECT CAST(b.bill_date AS DATE) AS sale_date, bi.item_id, bi.quantity, bi.total AS revenue, " +
+                "b.id AS bill_id, 0 AS returned_quantity FROM bill_items bi JOIN bills b ON b.id = bi.bill_id" +
+                billRange +
+                " UNION ALL " +
+                "SELECT CAST(r.return_date AS DATE), ri.item_id, -ri.quantity, -ri.total, NULL, ri.quantity " +
+                "FROM bill_return_items ri JOIN bill_returns r ON r.id = ri.return_id" + returnRange +
+                ") item_days GROUP BY sale_date, item_id",
+                insertArgs.toArray());
+    }
+
+    private static Object[] updateArgs(ItemSalesDaily row, Timestamp now) {
+        return new Object[] {row.getQuantity(), row.getRevenue(), row.getBillCount(), row.getReturnedQuantity(), now,
+                Date.valueOf(row.getSaleDate()), row.getItemId()};
+    }
+}
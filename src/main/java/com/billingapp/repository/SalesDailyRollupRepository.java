@@ -0,0 +1,17 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyRollupRepository
+        extends JpaRepository<SalesDailyRollup, SalesDailyRollup.Key>, SalesDailyRollupRepositoryCustom {
+
+    List<SalesDailyRollup> findBySaleDateBetweenOrderBySaleDateAsc(LocalDate startDate, LocalDate endDate);
+
+    List<SalesDailyRollup> findBySaleDateBetweenAndTypeOrderBySaleDateAsc(LocalDate startDate, LocalDate endDate, String type);
+}
@@ -0,0 +1,21 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.SalesDailyRollup;
+
+import java.time.LocalDate;
+
+public interface SalesDailyRollupRepositoryCustom {
+
+    /**
+     * Add the delta's counts and amounts to the totals of its day and type, creating the row
+     * on first use. Pass negative counts and amounts to take a bill back out.
+     */
+    void addToDay(SalesDailyRollup delta);
+
+    /**
+     * Recompute the rows of {@code [startDate, endDate]} from the bills and bill_returns tables.
+     * Null bounds mean unbounded, so passing two nulls rebuilds the whole table.
+     * @return Number of rollup rows written
+     */
+    int rebuild(LocalDate startDate, LocalDate endDate);
+}
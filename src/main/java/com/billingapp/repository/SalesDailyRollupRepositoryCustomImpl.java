@@ -0,0 +1,102 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.SalesDailyRollup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SalesDailyRollupRepositoryCustomImpl implements SalesDailyRollupRepositoryCustom {
+
+    private static final String ADD_TO_DAY =
+            "UPDATE sales_daily_rollup SET bill_count = bill_count + ?, return_count = return_count + ?, " +
+            "subtotal = subtotal + ?, tax_amount = tax_amount + ?, discount_amount = discount_amount + ?, " +
+            "grand_total = grand_total + ?, refund_total = refund_total + ?, updated_at = ? " +
+            "WHERE sale_date = ? AND type = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SalesDailyRollupRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addToDay(SalesDailyRollup delta) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Date day = Date.valueOf(delta.getSaleDate());
+        String type = delta.getType();
+        Object[] updateArgs = {delta.getBillCount(), delta.getReturnCount(), delta.getSubtotal(), delta.getTaxAmount(),
+                delta.getDiscountAmount(), delta.getGrandTotal(), delta.getRefundTotal(), now, day, type};
+
+        // Almost every bill lands on an existing row, so try the update first. Insert-or-ignore
+        // followed by a second update keeps this correct when two first bills of a day race,
+        // and works on H2 as well as PostgreSQL.
+        if (jdbcTemplate.update(ADD_TO_DAY, updateArgs) > 0) {
+            if (delta.getBillCount() < 0 || delta.getReturnCount() < 0) {
+                // The last bill or return of the day was removed; drop the empty row so reports skip the day
+                jdbcTemplate.update("DELETE FROM sales_daily_rollup WHERE sale_date = ? AND type = ? " +
+                        "AND bill_count <= 0 AND return_count <= 0", day, type);
+            }
+            return;
+        }
+        int inserted = jdbcTemplate.update(
+                "INSERT INTO sales_daily_rollup (sale_date, type, bill_count, return_count, subtotal, tax_amount, " +
+                "discount_amount, grand_total, refund_total, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON CONFLICT DO NOTHING",
+                day, type, delta.getBillCount(), delta.getReturnCount(), delta.getSubtotal(), delta.getTaxAmount(),
+                delta.getDiscountAmount(), delta.getGrandTotal(), delta.getRefundTotal(), now);
+        if (inserted == 0) {
+            jdbcTemplate.update(ADD_TO_DAY, updateArgs);
+        }
+    }
+
+    @Override
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        StringBuilder rollupRange = new StringBuilder(" WHERE 1 = 1");
+        StringBuilder billRange = new StringBuilder(" WHERE 1 = 1");
+        StringBuilder returnRange = new StringBuilder(" WHERE 1 = 1");
+        List<Object> rollupArgs = new ArrayList<>();
+        List<Object> billArgs = new ArrayList<>();
+        List<Object> returnArgs = new ArrayList<>();
+        if (startDate != null) {
+            rollupRange.append(" AND sale_date >= ?");
+            rollupArgs.add(Date.valueOf(startDate));
+            billRange.append(" AND bill_date >= ?");
+            billArgs.add(Timestamp.valueOf(startDate.atStartOfDay()));
+            returnRange.append(" AND return_date >= ?");
+            returnArgs.add(Timestamp.valueOf(startDate.atStartOfDay()));
+        }
+        if (endDate != null) {
+            rollupRange.append(" AND sale_date <= ?");
+            rollupArgs.add(Date.valueOf(endDate));
+            billRange.append(" AND bill_date < ?");
+            billArgs.add(Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+            returnRange.append(" AND return_date < ?");
+            returnArgs.add(Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+        }
+
+        List<Object> insertArgs = new ArrayList<>();
+        insertArgs.add(Timestamp.valueOf(LocalDateTime.now()));
+        insertArgs.addAll(billArgs);
+        insertArgs.addAll(returnArgs);
+
+        jdbcTemplate.update("DELETE FROM sales_daily_rollup" + rollupRange, rollupArgs.toArray());
+        // Returns count on the day they were made, netted against that day's sales
+        return jdbcTemplate.update(
+                "INSERT INTO sales_daily_rollup (sale_date, type, bill_count, return_count, subtotal, tax_amount, " +
+                "discount_amount, grand_total, refund_total, updated_at) " +
+                "SELECT sale_date, type, SUM(bill_count), SUM(return_count), SUM(subtotal), SUM(tax_amount), " +
+                "SUM(discount_amount), SUM(grand_total), SUM(refund_total), ? FROM (" +
+                "SELECT CAST(bill_date AS DATE) AS sale_date, type, 1 AS bill_count, 0 AS return_count, " +
+                "subtotal, tax_amount, discount_amount, grand_total, 0 AS refund_total FROM bills" + billRange +
+                " UNION ALL " +
+                "SELECT CAST(return_date AS DATE), bill_type, 0, 1, -subtotal, -tax_amount, -discount_amount, " +
+                "-grand_total, grand_total FROM bill_returns" + returnRange +
+                ") day_totals GROUP BY sale_date, type",
+                insertArgs.toArray());
+    }
+}
@@ -0,0 +1,30 @@
+package com.billingapp.repository;
+
+import com.billingapp.entity.SyncTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, SyncTombstone.Key> {
+
+    // Tombstones after the (deletedAt, entityId) position and before the settle horizon
+    @Query("SELECT t FROM SyncTombstone t WHERE t.entityType = :type AND t.deletedAt < :until " +
+           "AND (t.deletedAt > :since OR (t.deletedAt = :since AND t.entityId > :afterId)) " +
+           "ORDER BY t.deletedAt, t.entityId")
+    List<SyncTombstone> findChanges(@Param("type") String type,
+                                    @Param("since") LocalDateTime since,
+                                    @Param("afterId") Long afterId,
+                                    @Param("until") LocalDateTime until,
+                                    Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,149 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.BillBatchResult;
+import com.billingapp.dto.BillRequest;
+import com.billingapp.dto.BillSummary;
+import com.billingapp.dto.StockShortage;
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.BillItem;
+import com.billingapp.event.BillSavedEvent;
+import com.billingapp.repository.BillRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Saves many bills in one transaction, for tills that were offline and sync a day's bills.
+ *
+ * Bill numbers make the request idempotent: bills that already exist, or appear twice in the
+ * batch, are reported as duplicates and left alone, so a till can resend a batch after a
+ * dropped connection. Stock for all lines is checked under row locks and decremented per
+ * item in one batch; bills and their items are inserted with JDBC batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BillIngestionService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final BillRepository billRepository;
+    private final InventoryService inventoryService;
+    private final SalesReportService salesReportService;
+    private final CustomerLedgerService customerLedgerService;
+    private final ItemSalesService itemSalesService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    /**
+     * @param requests Bills in till order; when stock runs out, earlier bills win
+     * @return One result per request, in the same order
+     * @throws IllegalArgumentException if the batch is larger than {@link #MAX_BATCH_SIZE}
+     */
+    @Transactional
+    public List<BillBatchResult> ingest(List<BillRequest> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " bills can be sent in one batch");
+        }
+        BillBatchResult[] results = new BillBatchResult[requests.size()];
+
+        // Validate, and drop bill numbers repeated within the batch
+        Map<String, Integer> candidates = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BillRequest request = requests.get(i);
+            if (request == null) {
+                results[i] = result(i, null, BillBatchResult.Status.INVALID, null, List.of("Bill is empty"));
+                continue;
+            }
+            if (request.getBillDate() == null) {
+                request.setBillDate(LocalDateTime.now());
+            }
+            List<String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[i] = result(i, request.getBillNumber(), BillBatchResult.Status.INVALID, null, errors);
+            } else if (candidates.putIfAbsent(request.getBillNumber(), i) != null) {
+                results[i] = result(i, request.getBillNumber(), BillBatchResult.Status.DUPLICATE, null,
+                        List.of("Bill number repeated in this batch"));
+            }
+        }
+
+        // Bills saved by an earlier sync
+        Map<String, Long> existing = billRepository.findIdsByBillNumbers(candidates.keySet());
+        existing.forEach((billNumber, billId) -> {
+            int i = candidates.remove(billNumber);
+            results[i] = result(i, billNumber, BillBatchResult.Status.DUPLICATE, billId, List.of());
+        });
+
+        // Take stock for the remaining bills in request order
+        List<Integer> order = candidates.values().stream().sorted().collect(Collectors.toList());
+        List<Bill> bills = new ArrayList<>(order.size());
+        List<Map<Long, Integer>> sales = new ArrayList<>(order.size());
+        for (int i : order) {
+            Bill bill = BillService.toBill(requests.get(i));
+            Map<Long, Integer> quantities = new TreeMap<>();
+            for (BillItem item : bill.getItems()) {
+                quantities.merge(item.getItemId(), item.getQuantity(), Integer::sum);
+            }
+            bills.add(bill);
+            sales.add(quantities);
+        }
+        List<List<StockShortage>> shortages = inventoryService.reserveForSales(sales);
+
+        List<Bill> accepted = new ArrayList<>(bills.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(bills.size());
+        for (int k = 0; k < order.size(); k++) {
+            int i = order.get(k);
+            if (shortages.get(k).isEmpty()) {
+                accepted.add(bills.get(k));
+                acceptedIndexes.add(i);
+            } else {
+                results[i] = result(i, bills.get(k).getBillNumber(), BillBatchResult.Status.REJECTED, null,
+                        shortages.get(k).stream().map(StockShortage::toString).collect(Collectors.toList()));
+            }
+        }
+
+        billRepository.insertBatch(accepted);
+        salesReportService.recordBills(accepted);
+        customerLedgerService.recordBills(accepted);
+        itemSalesService.recordBills(accepted);
+        accepted.forEach(bill -> eventPublisher.publishEvent(new BillSavedEvent(BillSummary.fromEntity(bill))));
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = acceptedIndexes.get(k);
+            Bill bill = accepted.get(k);
+            results[i] = result(i, bill.getBillNumber(), BillBatchResult.Status.CREATED, bill.getId(), List.of());
+        }
+
+        log.info("Ingested bill batch: {} requested, {} created", requests.size(), accepted.size());
+        return List.of(results);
+    }
+
+    private List<String> validate(BillRequest request) {
+        Set<ConstraintViolation<BillRequest>> violations = validator.validate(request);
+        List<String> errors = violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (request.getBillNumber() == null || request.getBillNumber().isBlank()) {
+            errors.add("billNumber: Bill number is required");
+        }
+        errors.sort(null);
+        return errors;
+    }
+
+    private static BillBatchResult result(int index, String billNumber, BillBatchResult.Status status,
+                                          Long billId, List<String> errors) {
+        return new BillBatchResult(index, billNumber, status, billId, errors);
+    }
+}
@@ -0,0 +1,124 @@
+package com.billingapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out bill numbers such as {@code BILL-20261018-000123}: a store code, the day of issue
+ * and a running number that is unique across every app instance sharing the database.
+ *
+ * Running numbers are leased from {@code bill_number_seq} in blocks of {@link #BLOCK_SIZE}
+ * and handed out from memory with a single atomic increment; the database is only asked
+ * for a new block when the current one runs out. Numbers left in a block when the app
+ * stops are skipped, so numbers are unique and increasing per instance but not gap-free.
+ */
+@Slf4j
+@Component
+public class BillNumberGenerator {
+
+    static final int BLOCK_SIZE = 100;
+    private static final int MIN_DIGITS = 6;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String storeCode;
+    private final ZoneId zone = ZoneId.systemDefault();
+    // A lock rather than a monitor: leasing waits on the database, which would pin a virtual thread
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    private volatile Block block = Block.EMPTY;
+    private volatile DayPrefix dayPrefix;
+
+    public BillNumberGenerator(JdbcTemplate jdbcTemplate,
+                               @Value("${billing.bill-number.store-code:BILL}") String storeCode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storeCode = storeCode;
+    }
+
+    public String next() {
+        long number = nextNumber();
+        String prefix = prefix(System.currentTimeMillis());
+
+        StringBuilder result = new StringBuilder(prefix.length() + 20).append(prefix);
+        for (int digits = digits(number); digits < MIN_DIGITS; digits++) {
+            result.append('0');
+        }
+        return result.append(number).toString();
+    }
+
+    long nextNumber() {
+        while (true) {
+            Block current = block;
+            long number = current.next.getAndIncrement();
+            if (number <= current.last) {
+                return number;
+            }
+            leaseLock.lock();
+            try {
+                // Another thread may have leased a new block while this one waited
+                if (block == current) {
+                    block = lease();
+                }
+            } finally {
+                leaseLock.unlock();
+            }
+        }
+    }
+
+    private Block lease() {
+        Long first = jdbcTemplate.queryForObject("SELECT nextval('bill_number_seq')", Long.class);
+        log.debug("Leased bill numbers {} to {}", first, first + BLOCK_SIZE - 1);
+        return new Block(first, first + BLOCK_SIZE - 1);
+    }
+
+    private String prefix(long nowMillis) {
+        DayPrefix current = dayPrefix;
+        if (current == null || nowMillis >= current.validUntil) {
+            LocalDate today = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+            long validUntil = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            current = new DayPrefix(storeCode + "-" + today.format(DAY_FORMAT) + "-", validUntil);
+            dayPrefix = current;
+        }
+        return current.text;
+    }
+
+    private static int digits(long number) {
+        int digits = 1;
+        while (number >= 10) {
+            number /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static final class Block {
+        static final Block EMPTY = new Block(1, 0);
+
+        final AtomicLong next;
+        final long last;
+
+        Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+
+    private static final class DayPrefix {
+        final String text;
+        final long validUntil;
+
+        DayPrefix(String text, long validUntil) {
+            this.text = text;
+            this.validUntil = validUntil;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.BillReturnRequest;
+import com.billingapp.dto.ItemQuantity;
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.BillItem;
+import com.billingapp.entity.BillReturn;
+import com.billingapp.entity.BillReturnItem;
+import com.billingapp.repository.BillRepository;
+import com.billingapp.repository.BillReturnRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Credit notes: goods brought back against a bill, all of it or only some lines and units.
+ *
+ * A batch of returns (e.g. a till's returns at the end of the day) is one transaction: the
+ * bills are locked so the same units cannot be returned twice, stock for every returned line
+ * goes back in one JDBC batch, and the sales rollup, item sales and credit balances are
+ * adjusted with one write per day, item or customer rather than one per line.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BillReturnService {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+    private static final int RATIO_SCALE = 10;
+
+    private final BillRepository billRepository;
+    private final BillReturnRepository billReturnRepository;
+    private final InventoryService inventoryService;
+    private final SalesReportService salesReportService;
+    private final CustomerLedgerService customerLedgerService;
+    private final ItemSalesService itemSalesService;
+
+    /**
+     * Record one return.
+     * @throws IllegalArgumentException if the bill or a line does not exist, or more units
+     *         would be returned than were sold and not yet returned
+     */
+    @Transactional
+    public BillReturn recordReturn(BillReturnRequest request) {
+        return recordReturns(List.of(request)).get(0);
+    }
+
+    /**
+     * Record several returns at once, all or none. Returns against the same bill are applied
+     * in request order, each seeing the units taken back by the ones before it.
+     * @return The saved returns, in request order
+     * @throws IllegalArgumentException naming the first invalid return (1-based) in the batch
+     */
+    @Transactional
+    public List<BillReturn> recordReturns(List<BillReturnRequest> requests) {
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("No returns given");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " returns can be sent in one batch");
+        }
+        TreeSet<Long> billIds = new TreeSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BillReturnRequest request = requests.get(i);
+            if (request == null || request.getBillId() == null) {
+                throw new IllegalArgumentException(prefix(requests, i) + "Bill ID is required");
+            }
+            billIds.add(request.getBillId());
+        }
+
+        // Lock the bills, then read their lines and earlier returns once for the whole batch
+        Map<Long, ReturnableBill> bills = new HashMap<>();
+        for (Bill bill : billRepository.findAllByIdForUpdate(billIds)) {
+            bills.put(bill.getId(), new ReturnableBill(bill));
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            if (!bills.containsKey(requests.get(i).getBillId())) {
+                throw new IllegalArgumentException(prefix(requests, i) + "Bill not found: " + requests.get(i).getBillId());
+            }
+        }
+        billRepository.fetchItemsForBills(new ArrayList<>(billIds));
+        for (BillReturn earlier : billReturnRepository.findWithItemsByBillIds(bills.keySet())) {
+            bills.get(earlier.getBillId()).add(earlier);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BillReturn> created = new ArrayList<>(requests.size());
+        List<ItemQuantity> restock = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BillReturnRequest request = requests.get(i);
+            ReturnableBill bill = bills.get(request.getBillId());
+            BillReturn billReturn;
+            try {
+                billReturn = bill.take(request, now);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(prefix(requests, i) + e.getMessage());
+            }
+            created.add(billReturn);
+            billReturn.getItems().forEach(line -> restock.add(new ItemQuantity(line.getItemId(), line.getQuantity())));
+        }
+
+        billReturnRepository.saveAll(created);
+        List<Long> notRestocked = inventoryService.updateStockAfterReturn(restock);
+        if (!notRestocked.isEmpty()) {
+            log.warn("Returned items {} no longer exist; their stock was not restored", notRestocked);
+        }
+        salesReportService.recordReturns(created);
+        customerLedgerService.recordReturns(created);
+        itemSalesService.recordReturns(created);
+
+        log.info("Recorded {} returns against {} bills", created.size(), bills.size());
+        return created;
+    }
+
+    /**
+     * Undo the returns of a bill that is being deleted and put back the stock of the units
+     * that were sold and not returned. Must run in the transaction that deletes the bill.
+     */
+    public void removeForDeletedBill(Bill bill) {
+        List<BillReturn> returns = billReturnRepository.findWithItemsByBillIds(List.of(bill.getId()));
+        ReturnableBill returnable = new ReturnableBill(bill);
+        returns.forEach(returnable::add);
+
+        List<ItemQuantity> unreturned = new ArrayList<>();
+        for (BillItem line : bill.getItems()) {
+            int remaining = line.getQuantity() - returnable.returnedQuantity(line.getId());
+            if (remaining > 0) {
+                unreturned.add(new ItemQuantity(line.getItemId(), remaining));
+            }
+        }
+        List<Long> notRestocked = inventoryService.updateStockAfterReturn(unreturned);
+        if (!notRestocked.isEmpty()) {
+            log.warn("Items {} of deleted bill {} no longer exist; their stock was not restored",
+                    notRestocked, bill.getBillNumber());
+        }
+
+        if (!returns.isEmpty()) {
+            salesReportService.reverseReturns(returns);
+            itemSalesService.reverseReturns(returns);
+            billReturnRepository.deleteAll(returns);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BillReturn> findById(Long id) {
+        return billReturnRepository.findByIdWithItems(id);
+    }
+
+    /**
+     * Returns against a bill, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<BillReturn> findByBillId(Long billId) {
+        return billReturnRepository.findWithItemsByBillIds(List.of(billId));
+    }
+
+    /**
+     * Returns made on one day, e.g. for the end-of-day cash count.
+     */
+    @Transactional(readOnly = true)
+    public List<BillReturn> findByReturnDate(LocalDate date) {
+        return billReturnRepository.findWithItemsByReturnDate(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    private static String prefix(List<BillReturnRequest> requests, int index) {
+        return requests.size() > 1 ? "Return " + (index + 1) + ": " : "";
+    }
+
+    /**
+     * A locked bill with what has been returned from it so far, line by line and in total.
+     */
+    private static final class ReturnableBill {
+        private final Bill bill;
+        private final Map<Long, Integer> returnedByLine = new HashMap<>();
+        private final Map<Long, BigDecimal> refundedByLine = new HashMap<>();
+        private final BillReturn returnedSoFar = new BillReturn();
+        private int returnCount;
+
+        ReturnableBill(Bill bill) {
+            this.bill = bill;
+            returnedSoFar.setSubtotal(BigDecimal.ZERO);
+            returnedSoFar.setGrandTotal(BigDecimal.ZERO);
+        }
+
+        int returnedQuantity(Long billItemId) {
+            return returnedByLine.getOrDefault(billItemId, 0);
+        }
+
+        void add(BillReturn billReturn) {
+            returnCount++;
+            for (BillReturnItem line : billReturn.getItems()) {
+                returnedByLine.merge(line.getBillItemId(), line.getQuantity(), Integer::sum);
+                refundedByLine.merge(line.getBillItemId(), line.getTotal(), BigDecimal::add);
+            }
+            returnedSoFar.setSubtotal(returnedSoFar.getSubtotal().add(billReturn.getSubtotal()));
+            returnedSoFar.setTaxAmount(returnedSoFar.getTaxAmount().add(billReturn.getTaxAmount()));
+            returnedSoFar.setDiscountAmount(returnedSoFar.getDiscountAmount().add(billReturn.getDiscountAmount()));
+            returnedSoFar.setGrandTotal(returnedSoFar.getGrandTotal().add(billReturn.getGrandTotal()));
+        }
+
+        /**
+         * Build the next return against this bill and count it as taken.
+         */
+        BillReturn take(BillReturnRequest request, LocalDateTime now) {
+            if (request.getLines() == null || request.getLines().isEmpty()) {
+                throw new IllegalArgumentException("Lines cannot be empty");
+            }
+            LocalDateTime returnDate = request.getReturnDate() != null ? request.getReturnDate() : now;
+            if (returnDate.isBefore(bill.getBillDate())) {
+                throw new IllegalArgumentException("Return date is before the bill date");
+            }
+
+            Map<Long, BillItem> billLines = new HashMap<>();
+            bill.getItems().forEach(line -> billLines.put(line.getId(), line));
+            Map<Long, Integer> requested = new LinkedHashMap<>();
+            for (BillReturnRequest.ReturnLineRequest line : request.getLines()) {
+                if (line == null || line.getBillItemId() == null) {
+                    throw new IllegalArgumentException("Bill item ID is required");
+                }
+                if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                    throw new IllegalArgumentException("Quantity must be positive");
+                }
+                requested.merge(line.getBillItemId(), line.getQuantity(), Integer::sum);
+            }
+
+            BillReturn billReturn = new BillReturn();
+            BigDecimal subtotal = BigDecimal.ZERO;
+            for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+                BillItem line = billLines.get(entry.getKey());
+                if (line == null) {
+                    throw new IllegalArgumentException("Line " + entry.getKey() + " is not on bill " + bill.getBillNumber());
+                }
+                int quantity = entry.getValue();
+                int alreadyReturned = returnedQuantity(line.getId());
+                if (alreadyReturned + quantity > line.getQuantity()) {
+                    throw new IllegalArgumentException("Only " + (line.getQuantity() - alreadyReturned) + " of "
+                            + line.getItemName() + " can still be returned, not " + quantity);
+                }
+                // The last units of a line take what is left of its total, so rounding cannot drift
+                BigDecimal total = alreadyReturned + quantity == line.getQuantity()
+                        ? line.getTotal().subtract(refundedByLine.getOrDefault(line.getId(), BigDecimal.ZERO))
+                        : line.getTotal().multiply(BigDecimal.valueOf(quantity))
+                                .divide(BigDecimal.valueOf(line.getQuantity()), 2, RoundingMode.HALF_UP);
+
+                BillReturnItem item = new BillReturnItem();
+                item.setBillItemId(line.getId());
+                item.setItemId(line.getItemId());
+                item.setItemName(line.getItemName());
+                item.setQuantity(quantity);
+                item.setTotal(total);
+                billReturn.addItem(item);
+                subtotal = subtotal.add(total);
+            }
+
+            billReturn.setReturnNumber(bill.getBillNumber() + "-R" + (returnCount + 1));
+            billReturn.setBillId(bill.getId());
+            billReturn.setBillType(bill.getType());
+            billReturn.setReason(request.getReason());
+            billReturn.setReturnDate(returnDate);
+            if (isFullyReturnedWith(requested)) {
+                // Whatever is left of the bill's amounts
+                billReturn.setSubtotal(bill.getSubtotal().subtract(returnedSoFar.getSubtotal()));
+                billReturn.setTaxAmount(bill.getTaxAmount().subtract(returnedSoFar.getTaxAmount()));
+                billReturn.setDiscountAmount(bill.getDiscountAmount().subtract(returnedSoFar.getDiscountAmount()));
+                billReturn.setGrandTotal(bill.getGrandTotal().subtract(returnedSoFar.getGrandTotal()));
+            } else {
+                // Tax and discount pro rata to the share of the bill's subtotal that comes back
+                BigDecimal ratio = bill.getSubtotal().signum() == 0 ? BigDecimal.ZERO
+                        : subtotal.divide(bill.getSubtotal(), RATIO_SCALE, RoundingMode.HALF_UP);
+                billReturn.setSubtotal(subtotal);
+                billReturn.setTaxAmount(share(bill.getTaxAmount(), ratio));
+                billReturn.setDiscountAmount(share(bill.getDiscountAmount(), ratio));
+                billReturn.setGrandTotal(share(bill.getGrandTotal(), ratio));
+            }
+            add(billReturn);
+            return billReturn;
+        }
+
+        private boolean isFullyReturnedWith(Map<Long, Integer> requested) {
+            for (BillItem line : bill.getItems()) {
+                if (returnedQuantity(line.getId()) + requested.getOrDefault(line.getId(), 0) < line.getQuantity()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static BigDecimal share(BigDecimal amount, BigDecimal ratio) {
+            return amount == null ? BigDecimal.ZERO : amount.multiply(ratio).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -1,130 +1,169 @@
 package com.billingapp.service;
 
+import com.billingapp.dto.BillCursor;
 import com.billingapp.dto.BillRequest;
+import com.billingapp.dto.BillSummary;
+import com.billingapp.dto.ItemQuantity;
+import com.billingapp.dto.KeysetPage;
+import com.billingapp.dto.ResourceVersion;
 import com.billingapp.entity.Bill;
 import com.billingapp.entity.BillItem;
+import com.billingapp.event.BillSavedEvent;
+import com.billingapp.entity.SyncTombstone;
+import com.billingapp.exception.InsufficientStockException;
 import com.billingapp.repository.BillRepository;
+import com.billingapp.repository.BillSpecifications;
 import com.billingapp.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BillService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = KeysetPage.MAX_PAGE_SIZE;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final BillRepository billRepository;
     private final ItemRepository itemRepository;
     private final InventoryService inventoryService;
+    private final InvoicePdfRenderer invoicePdfRenderer;
+    private final SalesReportService salesReportService;
+    private final SyncService syncService;
+    private final CustomerLedgerService customerLedgerService;
+    private final ItemSalesService itemSalesService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BillReturnService billReturnService;
 
     @Transactional
     public Bill saveBill(BillRequest billRequest) {
         try {
-            Bill bill = new Bill();
-            bill.setBillNumber(billRequest.getBillNumber());
-            bill.setCustomerName(billRequest.getCustomerName());
-            bill.setPhoneNumber(billRequest.getPhoneNumber());
-            bill.setAddress(billRequest.getAddress());
-            bill.setSubtotal(billRequest.getSubtotal());
-            bill.setTaxAmount(billRequest.getTaxAmount());
-            bill.setDiscountAmount(billRequest.getDiscountAmount());
-            bill.setGrandTotal(billRequest.getGrandTotal());
-            bill.setType(billRequest.getType());
-            bill.setBillDate(billRequest.getBillDate() != null ? billRequest.getBillDate() : LocalDateTime.now());
-
-            // Save bill items
-            List<BillItem> items = billRequest.getItems().stream()
-                    .map(itemRequest -> {
-                        BillItem item = new BillItem();
-                        item.setItemId(itemRequest.getItemId());
-                        item.setItemName(itemRequest.getItemName());
-                        item.setMrp(itemRequest.getMrp());
-                        item.setSellPrice(itemRequest.getSellPrice());
-                        item.setPrice(itemRequest.getPrice());
-                        item.setQuantity(itemRequest.getQuantity());
-                        item.setTotal(itemRequest.getTotal());
-                        item.setUnit(itemRequest.getUnit());
-                        item.setBill(bill);
-                        return item;
-                    })
-                    .collect(Collectors.toList());
-
-            bill.getItems().addAll(items);
+            Bill bill = toBill(billRequest);
 
             // Update inventory
-            updateInventoryForBill(items);
-
-            return billRepository.save(bill);
+            updateInventoryForBill(bill.getItems());
+
+            Bill savedBill = billRepository.save(bill);
+            salesReportService.recordBill(savedBill);
+            customerLedgerService.recordBill(savedBill);
+            itemSalesService.recordBill(savedBill);
+            eventPublisher.publishEvent(new BillSavedEvent(BillSummary.fromEntity(savedBill)));
+            return savedBill;
         } catch (Exception e) {
             log.error("Error saving bill: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to save bill: " + e.getMessage(), e);
         }
     }
 
-    @Transactional
-    protected void updateInventoryForBill(List<BillItem> items) {
-        for (BillItem item : items) {
-            inventoryService.updateStockAfterSale(item.getItemId(), item.getQuantity());
+    /**
+     * Map a request to a new, unsaved bill with its items.
+     */
+    static Bill toBill(BillRequest billRequest) {
+        Bill bill = new Bill();
+        bill.setBillNumber(billRequest.getBillNumber());
+        bill.setCustomerName(billRequest.getCustomerName());
+        bill.setPhoneNumber(billRequest.getPhoneNumber());
+        bill.setAddress(billRequest.getAddress());
+        bill.setSubtotal(billRequest.getSubtotal());
+        bill.setTaxAmount(billRequest.getTaxAmount());
+        bill.setDiscountAmount(billRequest.getDiscountAmount());
+        bill.setGrandTotal(billRequest.getGrandTotal());
+        bill.setType(billRequest.getType());
+        bill.setBillDate(billRequest.getBillDate() != null ? billRequest.getBillDate() : LocalDateTime.now());
+
+        for (BillRequest.BillItemRequest itemRequest : billRequest.getItems()) {
+            BillItem item = new BillItem();
+            item.setItemId(itemRequest.getItemId());
+            item.setItemName(itemRequest.getItemName());
+            item.setMrp(itemRequest.getMrp());
+            item.setSellPrice(itemRequest.getSellPrice());
+            item.setPrice(itemRequest.getPrice());
+            item.setQuantity(itemRequest.getQuantity());
+            item.setTotal(itemRequest.getTotal());
+            item.setUnit(itemRequest.getUnit());
+            bill.addItem(item);
         }
+        return bill;
     }
 
-    public List<Bill> searchBills(String query, LocalDate startDate, LocalDate endDate, String type) {
-        // Convert LocalDate to LocalDateTime for the query
-        LocalDateTime startDateTime = startDate != null ? startDate.atStartOfDay() : null;
-        LocalDateTime endDateTime = endDate != null ? endDate.plusDays(1).atStartOfDay() : null;
-        
-        // Use simple queries and filter in application layer
-        List<Bill> bills = billRepository.findAllWithItems();
-        
-        return bills.stream()
-                .filter(bill -> {
-                    // Filter by search query
-                    if (query != null && !query.trim().isEmpty()) {
-                        String lowerQuery = query.toLowerCase();
-                        return bill.getBillNumber().toLowerCase().contains(lowerQuery) ||
-                               bill.getCustomerName().toLowerCase().contains(lowerQuery) ||
-                               (bill.getPhoneNumber() != null && bill.getPhoneNumber().toLowerCase().contains(lowerQuery));
-                    }
-                    return true;
-                })
-                .filter(bill -> {
-                    // Filter by date range
-                    if (startDateTime != null && bill.getBillDate().isBefore(startDateTime)) {
-                        return false;
-                    }
-                    if (endDateTime != null && bill.getBillDate().isAfter(endDateTime)) {
-                        return false;
-                    }
-                    return true;
-                })
-                .filter(bill -> {
-                    // Filter by type
-                    if (type != null && !type.trim().isEmpty() && !"all".equals(type)) {
-                        return type.equals(bill.getType());
-                    }
-                    return true;
-                })
+    @Transactional
+    protected void updateInventoryForBill(List<BillItem> items) throws InsufficientStockException {
+        List<ItemQuantity> lines = items.stream()
+                .map(item -> new ItemQuantity(item.getItemId(), item.getQuantity()))
                 .collect(Collectors.toList());
+        inventoryService.updateStockAfterSale(lines);
+    }
+
+    /**
+     * Search bills newest first, one keyset page at a time. Filtering, ordering and the
+     * page limit are all applied in the database, so cost depends on the page size only.
+     * @param cursor Token from the previous page's {@code nextCursor}, or null for the first page
+     * @param limit Requested page size, clamped to {@link #MAX_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Bill> searchBills(String query, LocalDate startDate, LocalDate endDate, String type,
+                                        String cursor, int limit) {
+        return searchBills(query, startDate, endDate, type, cursor, limit, false);
+    }
+
+    /**
+     * As above; with {@code withCount} the page also carries the number of bills matching the
+     * filters (ignoring the cursor). That costs a count query over the whole match, so it is opt-in.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Bill> searchBills(String query, LocalDate startDate, LocalDate endDate, String type,
+                                        String cursor, int limit, boolean withCount) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // endDate is inclusive, so the upper bound is the start of the following day
+        Specification<Bill> filter = Specification.where(BillSpecifications.matchesQuery(query))
+                .and(BillSpecifications.billDateFrom(startDate != null ? startDate.atStartOfDay() : null))
+                .and(BillSpecifications.billDateBefore(endDate != null ? endDate.plusDays(1).atStartOfDay() : null))
+                .and(BillSpecifications.hasType(type));
+        Specification<Bill> spec = filter
+                .and(BillSpecifications.after(cursor != null && !cursor.isEmpty() ? BillCursor.decode(cursor) : null));
+
+        // Read one extra row to learn whether another page exists
+        List<Bill> bills = billRepository.findSlice(spec, pageSize + 1);
+        String nextCursor = null;
+        if (bills.size() > pageSize) {
+            bills = new ArrayList<>(bills.subList(0, pageSize));
+            Bill last = bills.get(pageSize - 1);
+            nextCursor = new BillCursor(last.getBillDate(), last.getId()).encode();
+        }
+
+        // Initialise the items of the whole page with one query instead of one per bill
+        if (!bills.isEmpty()) {
+            billRepository.fetchItemsForBills(bills.stream().map(Bill::getId).collect(Collectors.toList()));
+        }
+        Long totalCount = withCount ? billRepository.count(filter) : null;
+        return new KeysetPage<>(bills, nextCursor, totalCount);
+    }
+
+    /**
+     * Stream every bill (with items) to the consumer in fixed-size chunks, newest first.
+     * Bills handed to the consumer are detached once it returns and must not be retained.
+     * @param consumer Receives each chunk; it is called on the caller's thread
+     */
+    @Transactional(readOnly = true)
+    public void exportBills(Consumer<List<Bill>> consumer) {
+        billRepository.forEachChunk(EXPORT_CHUNK_SIZE, consumer);
     }
 
     public List<Bill> findAll() {
@@ -136,85 +175,52 @@ public class BillService {
         return billRepository.findById(id);
     }
 
+    /**
+     * Last change of a bill, read without loading it; empty when the bill does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> findVersion(Long id) {
+        return billRepository.findVersionById(id);
+    }
+
+    public Optional<Bill> findByIdWithItems(Long id) {
+        return billRepository.findByIdWithItems(id);
+    }
+
     public Optional<Bill> findByBillNumber(String billNumber) {
         return billRepository.findByBillNumber(billNumber);
     }
 
+    /**
+     * Void a bill: take it out of the sales figures and the customer's balance, and put the
+     * units that were not returned back in stock. Its returns are removed with it.
+     */
     @Transactional
     public void deleteById(Long id) {
-        billRepository.deleteById(id);
+        billRepository.findById(id).ifPresent(bill -> {
+            salesReportService.reverseBill(bill);
+            customerLedgerService.reverseBill(bill);
+            itemSalesService.reverseBill(bill);
+            billReturnService.removeForDeletedBill(bill);
+            billRepository.delete(bill);
+            syncService.recordDeletion(SyncTombstone.BILL, id);
+        });
     }
 
     public byte[] generatePdf(Bill bill) {
-        try (PDDocument document = new PDDocument();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                
-            PDPage page = new PDPage(PDRectangle.A4);
-            document.addPage(page);
-            
-            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
-                // Use standard PDF fonts directly
-                var fontBold = PDType1Font.HELVETICA_BOLD;
-                var fontNormal = PDType1Font.HELVETICA;
-                
-                // Add header
-                addText(content, "INVOICE", 50, 750, fontBold, 18);
-                addText(content, "Bill #: " + bill.getBillNumber(), 50, 720, fontNormal, 12);
-                addText(content, "Date: " + bill.getBillDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), 400, 720, fontNormal, 12);
-                addText(content, "Customer: " + bill.getCustomerName(), 50, 700, fontNormal, 12);
-                
-                // Add items
-                float y = 650;
-                addText(content, "#", 50, y, fontBold, 10);
-                addText(content, "Item", 100, y, fontBold, 10);
-                addText(content, "Qty", 350, y, fontBold, 10);
-                addText(content, "Price", 400, y, fontBold, 10);
-                addText(content, "Total", 450, y, fontBold, 10);
-                y -= 20;
-                
-                int index = 1;
-                for (BillItem item : bill.getItems()) {
-                    addText(content, String.valueOf(index++), 50, y, fontNormal, 10);
-                    addText(content, item.getItemName(), 100, y, fontNormal, 10);
-                    addText(content, String.valueOf(item.getQuantity()), 350, y, fontNormal, 10);
-                    addText(content, String.format("%.2f", item.getSellPrice()), 400, y, fontNormal, 10);
-                    addText(content, String.format("%.2f", item.getTotal()), 450, y, fontNormal, 10);
-                    y -= 15;
-                }
-                
-                // Add totals
-                y -= 20;
-                addText(content, "Subtotal:", 350, y, fontNormal, 12);
-                addText(content, String.format("%.2f", bill.getSubtotal()), 450, y, fontNormal, 12);
-                y -= 20;
-                
-                if (bill.getDiscountAmount().compareTo(BigDecimal.ZERO) > 0) {
-                    addText(content, "Discount:", 350, y, fontNormal, 12);
-                    addText(content, String.format("-%.2f", bill.getDiscountAmount()), 450, y, fontNormal, 12);
-                    y -= 20;
-                }
-                
-                addText(content, "Total:", 350, y, fontBold, 12);
-                addText(content, String.format("%.2f", bill.getGrandTotal()), 450, y, fontBold, 12);
-                
-                // Add footer
-                addText(content, "Thank you for your business!", 50, 50, fontNormal, 10);
-            }
-            
-            document.save(baos);
-            return baos.toByteArray();
-            
+        try {
+            return invoicePdfRenderer.render(bill);
         } catch (Exception e) {
             log.error("Error generating PDF: {}", e.getMessage(), e);
             throw new RuntimeException("Error generating PDF", e);
         }
     }
-    
-    private void addText(PDPageContentStream content, String text, float x, float y, PDType1Font font, int size) throws IOException {
-        content.beginText();
-        content.setFont(font, size);
-        content.newLineAtOffset(x, y);
-        content.showText(text);
-        content.endText();
+
+    /**
+     * Render a bill's invoice straight into the given stream, e.g. the HTTP response.
+     * The bill's items must already be loaded (see {@link #findByIdWithItems}).
+     */
+    public void writePdf(Bill bill, OutputStream out) throws IOException {
+        invoicePdfRenderer.render(bill, out);
     }
 }
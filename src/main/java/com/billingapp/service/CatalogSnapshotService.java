@@ -0,0 +1,194 @@
+package com.billingapp.service;
+
+import com.billingapp.config.WireFormatConfig;
+import com.billingapp.dto.PosCatalogItem;
+import com.billingapp.dto.ResourceVersion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The POS catalog kept as ready-to-send bytes: serialized once per wire format and stored
+ * uncompressed, gzip and deflate, so a download is a plain array write with no Jackson or
+ * compression work.
+ *
+ * A snapshot is keyed by the catalog version (item count and newest updated_at). Every item
+ * write, including stock changes from sales, moves the version, and the next request after a
+ * change rebuilds the snapshot; requests in between share it.
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotService {
+
+    public enum ContentCoding {
+        IDENTITY, GZIP, DEFLATE;
+
+        public String headerValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final ItemService itemService;
+    private final Map<MediaType, ObjectMapper> mappers;
+
+    private volatile Snapshot snapshot = new Snapshot(null);
+    // A lock rather than a monitor: the rebuild reads the catalog, which would pin a virtual thread
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public CatalogSnapshotService(ItemService itemService, ObjectMapper objectMapper,
+                                  MappingJackson2SmileHttpMessageConverter smileConverter,
+                                  MappingJackson2CborHttpMessageConverter cborConverter) {
+        this.itemService = itemService;
+        this.mappers = Map.of(
+                MediaType.APPLICATION_JSON, objectMapper,
+                WireFormatConfig.APPLICATION_SMILE, smileConverter.getObjectMapper(),
+                WireFormatConfig.APPLICATION_CBOR, cborConverter.getObjectMapper());
+    }
+
+    /**
+     * The catalog as of {@code version}, serialized in {@code format} and encoded with {@code coding}.
+     * @param version Catalog version the caller just read; a newer snapshot is built when it differs
+     * @param format JSON, Smile or CBOR (see {@link WireFormatConfig#preferredVariant})
+     */
+    public byte[] getCatalog(ResourceVersion version, MediaType format, ContentCoding coding) {
+        Snapshot current = snapshot;
+        if (!version.equals(current.version)) {
+            current = refresh(version);
+        }
+        return current.encoded(format, coding);
+    }
+
+    /**
+     * Pick the best content coding the client accepts: gzip, then deflate, then none.
+     * Codings with {@code q=0} are refused.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return ContentCoding.IDENTITY;
+        }
+        ContentCoding best = ContentCoding.IDENTITY;
+        double bestQuality = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String name = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            ContentCoding coding = switch (name) {
+                case "gzip", "x-gzip", "*" -> ContentCoding.GZIP;
+                case "deflate" -> ContentCoding.DEFLATE;
+                default -> null;
+            };
+            // Ties go to gzip, which is listed first in the enum after identity
+            if (coding != null && quality > 0 && (quality > bestQuality
+                    || (quality == bestQuality && coding.ordinal() < best.ordinal()))) {
+                best = coding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    // One thread rebuilds; the others wait for it and reuse its result
+    private Snapshot refresh(ResourceVersion version) {
+        refreshLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (version.equals(current.version)) {
+                return current;
+            }
+            long start = System.nanoTime();
+            Snapshot fresh = new Snapshot(version, itemService.getPosCatalog());
+            snapshot = fresh;
+            log.debug("Catalog snapshot rebuilt with {} items in {} ms",
+                    fresh.items.size(), (System.nanoTime() - start) / 1_000_000);
+            return fresh;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private final class Snapshot {
+        private final ResourceVersion version;
+        private final List<PosCatalogItem> items;
+        // Built on first use per format, so an unused format costs nothing
+        private final Map<MediaType, Map<ContentCoding, byte[]>> bodies = new ConcurrentHashMap<>();
+
+        Snapshot(ResourceVersion version) {
+            this(version, List.of());
+        }
+
+        Snapshot(ResourceVersion version, List<PosCatalogItem> items) {
+            this.version = version;
+            this.items = items;
+        }
+
+        byte[] encoded(MediaType format, ContentCoding coding) {
+            return bodies.computeIfAbsent(format, this::serialize).get(coding);
+        }
+
+        private Map<ContentCoding, byte[]> serialize(MediaType format) {
+            try {
+                byte[] raw = mappers.get(format).writeValueAsBytes(items);
+                Map<ContentCoding, byte[]> encodings = new EnumMap<>(ContentCoding.class);
+                encodings.put(ContentCoding.IDENTITY, raw);
+                encodings.put(ContentCoding.GZIP, compress(raw, ContentCoding.GZIP));
+                encodings.put(ContentCoding.DEFLATE, compress(raw, ContentCoding.DEFLATE));
+                return encodings;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize the catalog: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // Compressed once per change, so spend the time on the smallest output
+    private static byte[] compress(byte[] raw, ContentCoding coding) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try {
+            if (coding == ContentCoding.GZIP) {
+                try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+                    {
+                        def.setLevel(Deflater.BEST_COMPRESSION);
+                    }
+                }) {
+                    out.write(raw);
+                }
+            } else {
+                Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+                try (DeflaterOutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+                    out.write(raw);
+                } finally {
+                    deflater.end();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
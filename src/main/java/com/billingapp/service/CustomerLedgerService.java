@@ -0,0 +1,286 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.KeysetPage;
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.BillReturn;
+import com.billingapp.entity.Customer;
+import com.billingapp.entity.CustomerLedgerEntry;
+import com.billingapp.repository.CustomerLedgerRepository;
+import com.billingapp.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Accounts of customers who buy on credit.
+ *
+ * Every CREDIT bill, return against one, payment and deleted credit bill appends a ledger
+ * entry and moves the customer's {@code outstanding_balance} in the same transaction, so a
+ * balance is one primary key (or customer key) read and the top debtors are the head of an index.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerLedgerService {
+
+    public static final String CREDIT_TYPE = "CREDIT";
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = KeysetPage.MAX_PAGE_SIZE;
+    // Fewer digits than this is not a usable phone number, so the customer is keyed by name
+    private static final int MIN_PHONE_DIGITS = 6;
+
+    private final CustomerRepository customerRepository;
+    private final CustomerLedgerRepository ledgerRepository;
+
+    /**
+     * Identity of the customer on a bill: the phone digits when there are enough of them,
+     * otherwise the name, lower-cased with runs of whitespace collapsed. V11's backfill uses
+     * the same rule, so keep the two in step.
+     */
+    public static String customerKey(String name, String phoneNumber) {
+        String digits = phoneNumber != null ? phoneNumber.replaceAll("[^0-9]", "") : "";
+        if (digits.length() >= MIN_PHONE_DIGITS) {
+            return "P:" + digits;
+        }
+        return "N:" + name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Charge a newly saved CREDIT bill to its customer; other bill types are ignored.
+     * Must run in the transaction that saved the bill.
+     */
+    public void recordBill(Bill bill) {
+        if (isCredit(bill)) {
+            recordBills(List.of(bill));
+        }
+    }
+
+    /**
+     * Charge several newly saved bills, with one balance update per customer they touch.
+     */
+    public void recordBills(Collection<Bill> bills) {
+        Map<String, List<Bill>> byCustomer = new LinkedHashMap<>();
+        for (Bill bill : bills) {
+            if (isCredit(bill)) {
+                byCustomer.computeIfAbsent(customerKey(bill.getCustomerName(), bill.getPhoneNumber()),
+                        key -> new ArrayList<>()).add(bill);
+            }
+        }
+        if (byCustomer.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CustomerLedgerEntry> entries = new ArrayList<>();
+        byCustomer.forEach((key, customerBills) -> {
+            Bill first = customerBills.get(0);
+            Long customerId = customerRepository.resolveId(key, first.getCustomerName().trim(), first.getPhoneNumber());
+            BigDecimal total = customerBills.stream().map(Bill::getGrandTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            // Replay the bills over the balance before this batch to give each entry its balance_after
+            BigDecimal balance = customerRepository.addToBalance(customerId, total).subtract(total);
+            for (Bill bill : customerBills) {
+                balance = balance.add(bill.getGrandTotal());
+                entries.add(entry(customerId, CustomerLedgerEntry.EntryType.CREDIT_BILL, bill.getId(),
+                        bill.getGrandTotal(), balance, bill.getBillNumber(), bill.getBillDate(), now));
+            }
+        });
+        ledgerRepository.saveAll(entries);
+    }
+
+    /**
+     * Take a credit bill that is being deleted back off its customer's balance, less what its
+     * returns already took off. Bills that were never charged (other types) or were already
+     * reversed are left alone.
+     */
+    public void reverseBill(Bill bill) {
+        List<CustomerLedgerEntry> entries = ledgerRepository.findByBillIdAndEntryTypeIn(bill.getId(),
+                EnumSet.of(CustomerLedgerEntry.EntryType.CREDIT_BILL, CustomerLedgerEntry.EntryType.BILL_REVERSAL,
+                        CustomerLedgerEntry.EntryType.BILL_RETURN));
+        CustomerLedgerEntry charge = null;
+        BigDecimal outstanding = BigDecimal.ZERO;
+        for (CustomerLedgerEntry entry : entries) {
+            if (entry.getEntryType() == CustomerLedgerEntry.EntryType.BILL_REVERSAL) {
+                return;
+            }
+            if (entry.getEntryType() == CustomerLedgerEntry.EntryType.CREDIT_BILL) {
+                charge = entry;
+            }
+            outstanding = outstanding.add(entry.getAmount());
+        }
+        if (charge == null) {
+            return;
+        }
+        BigDecimal amount = outstanding.negate();
+        BigDecimal balance = customerRepository.addToBalance(charge.getCustomerId(), amount);
+        LocalDateTime now = LocalDateTime.now();
+        ledgerRepository.save(entry(charge.getCustomerId(), CustomerLedgerEntry.EntryType.BILL_REVERSAL, bill.getId(),
+                amount, balance, "Deleted bill " + bill.getBillNumber(), now, now));
+    }
+
+    /**
+     * Take newly saved returns of credit bills off their customers' balances, with one charge
+     * lookup in total and one balance update per customer they touch. Returns of other bill
+     * types, or of bills that were never charged, are ignored. Must run in the transaction
+     * that saved the returns.
+     */
+    public void recordReturns(Collection<BillReturn> returns) {
+        Set<Long> creditBillIds = new HashSet<>();
+        for (BillReturn billReturn : returns) {
+            if (CREDIT_TYPE.equals(billReturn.getBillType())) {
+                creditBillIds.add(billReturn.getBillId());
+            }
+        }
+        if (creditBillIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> customerByBill = new HashMap<>();
+        for (CustomerLedgerEntry charge : ledgerRepository.findByBillIdInAndEntryType(creditBillIds,
+                CustomerLedgerEntry.EntryType.CREDIT_BILL)) {
+            customerByBill.put(charge.getBillId(), charge.getCustomerId());
+        }
+        Map<Long, List<BillReturn>> byCustomer = new LinkedHashMap<>();
+        for (BillReturn billReturn : returns) {
+            Long customerId = CREDIT_TYPE.equals(billReturn.getBillType())
+                    ? customerByBill.get(billReturn.getBillId()) : null;
+            if (customerId != null) {
+                byCustomer.computeIfAbsent(customerId, id -> new ArrayList<>()).add(billReturn);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CustomerLedgerEntry> entries = new ArrayList<>();
+        byCustomer.forEach((customerId, customerReturns) -> {
+            BigDecimal total = customerReturns.stream().map(BillReturn::getGrandTotal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add).negate();
+
+            // Replay the returns over the balance before this batch, as recordBills does
+            BigDecimal balance = customerRepository.addToBalance(customerId, total).subtract(total);
+            for (BillReturn billReturn : customerReturns) {
+                BigDecimal amount = billReturn.getGrandTotal().negate();
+                balance = balance.add(amount);
+                entries.add(entry(customerId, CustomerLedgerEntry.EntryType.BILL_RETURN, billReturn.getBillId(),
+                        amount, balance, "Return " + billReturn.getReturnNumber(), billReturn.getReturnDate(), now));
+            }
+        });
+        ledgerRepository.saveAll(entries);
+    }
+
+    /**
+     * Record money received from a customer. Paying more than is owed is allowed and leaves
+     * a negative (advance) balance.
+     * @param paymentDate When the money was received; null for now
+     * @throws IllegalArgumentException if the amount is not positive or the customer does not exist
+     */
+    @Transactional
+    public CustomerLedgerEntry recordPayment(Long customerId, BigDecimal amount, String note, LocalDateTime paymentDate) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Payment amount must be positive");
+        }
+        BigDecimal balance = customerRepository.addToBalance(customerId, amount.negate());
+        if (balance == null) {
+            throw new IllegalArgumentException("Customer not found: " + customerId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        CustomerLedgerEntry payment = ledgerRepository.save(entry(customerId, CustomerLedgerEntry.EntryType.PAYMENT,
+                null, amount.negate(), balance, note, paymentDate != null ? paymentDate : now, now));
+        log.info("Recorded payment of {} from customer {}, balance now {}", amount, customerId, balance);
+        return payment;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Customer> findById(Long id) {
+        return customerRepository.findById(id);
+    }
+
+    /**
+     * The customer a bill with this name and phone would be charged to.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Customer> findByNameOrPhone(String name, String phoneNumber) {
+        if ((name == null || name.isBlank()) && (phoneNumber == null || phoneNumber.isBlank())) {
+            throw new IllegalArgumentException("Give a name or a phone number");
+        }
+        return customerRepository.findByCustomerKey(customerKey(name != null ? name : "", phoneNumber));
+    }
+
+    /**
+     * Customers who owe the most, largest balance first.
+     */
+    @Transactional(readOnly = true)
+    public List<Customer> getTopDebtors(int limit) {
+        return customerRepository.findByOutstandingBalanceGreaterThanOrderByOutstandingBalanceDescIdAsc(
+                BigDecimal.ZERO, PageRequest.of(0, clamp(limit)));
+    }
+
+    /**
+     * A customer's ledger newest first, one keyset page at a time.
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<CustomerLedgerEntry> getLedger(Long customerId, String cursor, int limit) {
+        int pageSize = clamp(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<CustomerLedgerEntry> entries;
+        if (cursor == null || cursor.isEmpty()) {
+            entries = ledgerRepository.findByCustomerIdOrderByIdDesc(customerId, page);
+        } else {
+            entries = ledgerRepository.findByCustomerIdAndIdLessThanOrderByIdDesc(customerId, parseCursor(cursor), page);
+        }
+
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = new ArrayList<>(entries.subList(0, pageSize));
+            nextCursor = String.valueOf(entries.get(pageSize - 1).getId());
+        }
+        return new KeysetPage<>(entries, nextCursor);
+    }
+
+    private static boolean isCredit(Bill bill) {
+        return CREDIT_TYPE.equals(bill.getType());
+    }
+
+    private static CustomerLedgerEntry entry(Long customerId, CustomerLedgerEntry.EntryType type, Long billId,
+                                             BigDecimal amount, BigDecimal balanceAfter, String note,
+                                             LocalDateTime entryDate, LocalDateTime createdAt) {
+        CustomerLedgerEntry entry = new CustomerLedgerEntry();
+        entry.setCustomerId(customerId);
+        entry.setEntryType(type);
+        entry.setBillId(billId);
+        entry.setAmount(amount);
+        entry.setBalanceAfter(balanceAfter);
+        entry.setNote(note);
+        entry.setEntryDate(entryDate);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static long parseCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
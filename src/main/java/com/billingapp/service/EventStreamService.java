@@ -0,0 +1,311 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.StockLevel;
+import com.billingapp.event.BillSavedEvent;
+import com.billingapp.event.LowStockEvent;
+import com.billingapp.event.StockChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Server-sent events for tills and dashboards, so they can stop polling items and bills.
+ *
+ * Events are only taken from committed transactions. Stock changes are coalesced: changed
+ * item ids are collected and, once per {@code billing.events.coalesce-ms}, their current
+ * levels are read in one query and pushed as a single {@code stock} event holding the latest
+ * level of each item. Bills and low-stock crossings are queued per subscriber.
+ *
+ * Writes happen on {@code eventSendExecutor}, never on the publishing thread. Each subscriber
+ * has at most one write in flight, on a thread of its own, so a stalled connection holds up
+ * nobody else. While it is busy, its stock updates keep merging and its queue is capped, and
+ * a subscriber that overflows the cap gets one {@code resync} event telling it to reload
+ * instead of the backlog. Idle subscribers hold no thread.
+ */
+@Slf4j
+@Service
+public class EventStreamService {
+
+    public enum Topic {
+        STOCK, LOW_STOCK, BILLS;
+
+        static Topic parse(String name) {
+            try {
+                return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown topic: " + name + " (use stock, low-stock or bills)");
+            }
+        }
+    }
+
+    private final InventoryService inventoryService;
+    private final ExecutorService eventSendExecutor;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final int maxQueued;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // One permit per open stream, taken before it is registered and given back when it ends
+    private final Semaphore subscriberPermits;
+    private final Set<Long> changedItems = ConcurrentHashMap.newKeySet();
+
+    public EventStreamService(InventoryService inventoryService,
+                              @Qualifier("eventSendExecutor") ExecutorService eventSendExecutor,
+                              @Value("${billing.events.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${billing.events.max-subscribers:100}") int maxSubscribers,
+                              @Value("${billing.events.max-queued:100}") int maxQueued) {
+        this.inventoryService = inventoryService;
+        this.eventSendExecutor = eventSendExecutor;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.subscriberPermits = new Semaphore(maxSubscribers);
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Parse a comma-separated topic list; null or blank means every topic.
+     * @throws IllegalArgumentException on an unknown topic
+     */
+    public static Set<Topic> parseTopics(String topics) {
+        if (topics == null || topics.isBlank()) {
+            return EnumSet.allOf(Topic.class);
+        }
+        Set<Topic> parsed = EnumSet.noneOf(Topic.class);
+        for (String name : topics.split(",")) {
+            if (!name.isBlank()) {
+                parsed.add(Topic.parse(name));
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Open a stream for these topics. The stream ends after {@code billing.events.timeout-ms};
+     * EventSource clients reconnect by themselves.
+     * @throws IllegalStateException if the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Set<Topic> topics) {
+        if (!subscriberPermits.tryAcquire()) {
+            throw new IllegalStateException("Too many event subscribers (" + maxSubscribers + ")");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, topics);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        // Tells the client the stream is open; it should load current state after this
+        subscriber.enqueue(() -> SseEmitter.event().name("ready").data(topics));
+        schedule(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (!subscribers.isEmpty()) {
+            changedItems.addAll(event.getItemIds());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBillSaved(BillSavedEvent event) {
+        publish(Topic.BILLS, () -> SseEmitter.event().name("bill").data(event.getBill()));
+    }
+
+    // Raised by LowStockTracker, which already runs after commit
+    @EventListener
+    public void onLowStock(LowStockEvent event) {
+        Map<String, Object> crossing = new LinkedHashMap<>();
+        crossing.put("low", event.isLow());
+        crossing.put("item", event.getLevel());
+        publish(Topic.LOW_STOCK, () -> SseEmitter.event().name("low-stock").data(crossing));
+    }
+
+    @Scheduled(fixedDelayString = "${billing.events.coalesce-ms:500}")
+    public void pushStockChanges() {
+        if (changedItems.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = new ArrayList<>(changedItems);
+        changedItems.removeAll(itemIds);
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            List<StockLevel> levels = inventoryService.getStockLevels(itemIds);
+            Set<Long> removed = new LinkedHashSet<>(itemIds);
+            levels.forEach(level -> removed.remove(level.getItemId()));
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.topics.contains(Topic.STOCK)) {
+                    subscriber.mergeStock(levels, removed);
+                    schedule(subscriber);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Pushing stock changes failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Comment lines keep proxies from closing quiet streams and reveal dead connections
+    @Scheduled(fixedDelayString = "${billing.events.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(() -> SseEmitter.event().comment("keep-alive"));
+            schedule(subscriber);
+        }
+    }
+
+    // Builders are stateful, so every subscriber builds its own copy of the event
+    private void publish(Topic topic, Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.topics.contains(topic)) {
+                subscriber.enqueue(event);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.startSending()) {
+            return;
+        }
+        try {
+            eventSendExecutor.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            subscriber.stopSending();
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        List<SseEmitter.SseEventBuilder> batch;
+        while (!(batch = subscriber.takePending()).isEmpty()) {
+            try {
+                for (SseEmitter.SseEventBuilder event : batch) {
+                    subscriber.emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter callbacks may not fire for a write failure
+                unsubscribe(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    // Several callbacks can fire for one stream; only the first removal gives the permit back
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberPermits.release();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Topic> topics;
+        // Guarded by this
+        private final Map<Long, StockLevel> stock = new LinkedHashMap<>();
+        private final Set<Long> removedItems = new LinkedHashSet<>();
+        private final ArrayDeque<Supplier<SseEmitter.SseEventBuilder>> queue = new ArrayDeque<>();
+        private boolean overflowed;
+        private boolean sending;
+
+        private Subscriber(SseEmitter emitter, Set<Topic> topics) {
+            this.emitter = emitter;
+            this.topics = topics;
+        }
+
+        synchronized void enqueue(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (overflowed) {
+                return;
+            }
+            if (queue.size() >= maxQueued) {
+                queue.clear();
+                stock.clear();
+                removedItems.clear();
+                overflowed = true;
+                return;
+            }
+            queue.add(event);
+        }
+
+        synchronized void mergeStock(Collection<StockLevel> levels, Collection<Long> removed) {
+            if (overflowed) {
+                return;
+            }
+            for (StockLevel level : levels) {
+                stock.put(level.getItemId(), level);
+                removedItems.remove(level.getItemId());
+            }
+            for (Long itemId : removed) {
+                stock.remove(itemId);
+                removedItems.add(itemId);
+            }
+        }
+
+        synchronized boolean startSending() {
+            if (sending) {
+                return false;
+            }
+            sending = true;
+            return true;
+        }
+
+        synchronized void stopSending() {
+            sending = false;
+        }
+
+        /**
+         * Everything waiting, as events to write; when nothing is waiting the subscriber is
+         * marked idle in the same step, so a concurrent enqueue schedules a new drain.
+         */
+        synchronized List<SseEmitter.SseEventBuilder> takePending() {
+            List<SseEmitter.SseEventBuilder> batch = new ArrayList<>();
+            if (overflowed) {
+                batch.add(SseEmitter.event().name("resync").data("Too many updates; reload items and bills"));
+                overflowed = false;
+            }
+            if (!stock.isEmpty() || !removedItems.isEmpty()) {
+                Map<String, Object> update = new LinkedHashMap<>();
+                update.put("items", new ArrayList<>(stock.values()));
+                update.put("removed", new ArrayList<>(removedItems));
+                batch.add(SseEmitter.event().name("stock").data(update));
+                stock.clear();
+                removedItems.clear();
+            }
+            queue.forEach(event -> batch.add(event.get()));
+            queue.clear();
+            if (batch.isEmpty()) {
+                sending = false;
+            }
+            return batch;
+        }
+    }
+}
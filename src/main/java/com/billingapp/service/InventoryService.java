@@ -1,18 +1,39 @@
 package com.billingapp.service;
 
+import com.billingapp.dto.ItemQuantity;
+import com.billingapp.dto.StockLevel;
+import com.billingapp.dto.StockShortage;
 import com.billingapp.entity.Item;
+import com.billingapp.event.StockChangedEvent;
+import com.billingapp.exception.InsufficientStockException;
 import com.billingapp.repository.ItemRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
     
     private final ItemRepository itemRepository;
+    // Present only when billing.stock-ledger.enabled=true
+    private final Optional<StockLedger> stockLedger;
+    private final ItemCatalogCache itemCatalogCache;
+    private final LowStockTracker lowStockTracker;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Update inventory stock after a sale
@@ -26,6 +47,16 @@ public class InventoryService {
             throw new IllegalArgumentException("Quantity sold must be positive");
         }
         
+        if (stockLedger.isPresent()) {
+            List<StockShortage> shortages = stockLedger.get().reserve(Map.of(itemId, quantitySold));
+            if (!shortages.isEmpty()) {
+                throw new RuntimeException(shortages.get(0).toString());
+            }
+            itemCatalogCache.evictAfterCommit(itemId);
+            stockChanged(List.of(itemId));
+            return;
+        }
+        
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Item not found with ID: " + itemId));
         
@@ -38,6 +69,110 @@ public class InventoryService {
         item.setCurrentStock(newStock);
         item.setUpdatedAt(java.time.LocalDateTime.now());
         itemRepository.save(item);
+        itemCatalogCache.evictAfterCommit(itemId);
+        stockChanged(List.of(itemId));
+    }
+    
+    /**
+     * Update inventory stock for all lines of a sale in one batched round trip.
+     * Quantities for the same item are summed and rows are updated in id order.
+     * Each update only applies if the item still holds enough stock; if any item is
+     * short, the whole sale is rolled back.
+     * @param lines Item quantities sold (positive numbers)
+     * @throws InsufficientStockException listing every item that could not be covered
+     */
+    @Transactional(rollbackFor = InsufficientStockException.class)
+    public void updateStockAfterSale(Collection<ItemQuantity> lines) throws InsufficientStockException {
+        Map<Long, Integer> quantitiesByItem = new TreeMap<>();
+        for (ItemQuantity line : lines) {
+            if (line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity sold must be positive");
+            }
+            quantitiesByItem.merge(line.getItemId(), line.getQuantity(), Integer::sum);
+        }
+        if (quantitiesByItem.isEmpty()) {
+            return;
+        }
+        
+        if (stockLedger.isPresent()) {
+            List<StockShortage> shortages = stockLedger.get().reserve(quantitiesByItem);
+            if (!shortages.isEmpty()) {
+                throw new InsufficientStockException(shortages);
+            }
+        } else {
+            List<Long> notUpdated = itemRepository.reduceStockBatch(quantitiesByItem);
+            if (!notUpdated.isEmpty()) {
+                throw new InsufficientStockException(itemRepository.findShortages(quantitiesByItem, notUpdated));
+            }
+        }
+        List<Long> itemIds = List.copyOf(quantitiesByItem.keySet());
+        itemCatalogCache.evictAfterCommit(itemIds);
+        stockChanged(itemIds);
+    }
+    
+    /**
+     * Take stock for several sales at once, e.g. a till syncing a day of offline bills.
+     * Sales are considered in order and each one is accepted only if all of its lines are
+     * covered by the stock left after the sales before it; accepted quantities are then
+     * written per item in one batch. Item rows are locked for the rest of the transaction.
+     * @param sales Quantity per item id for each sale (positive numbers)
+     * @return Shortages per sale, in the same order; an empty list means the sale was accepted
+     */
+    @Transactional
+    public List<List<StockShortage>> reserveForSales(List<Map<Long, Integer>> sales) {
+        List<List<StockShortage>> results = new ArrayList<>(sales.size());
+        Set<Long> taken = new TreeSet<>();
+        
+        if (stockLedger.isPresent()) {
+            for (Map<Long, Integer> sale : sales) {
+                List<StockShortage> shortages = stockLedger.get().reserve(sale);
+                if (shortages.isEmpty()) {
+                    taken.addAll(sale.keySet());
+                }
+                results.add(shortages);
+            }
+        } else {
+            Set<Long> itemIds = new TreeSet<>();
+            sales.forEach(sale -> itemIds.addAll(sale.keySet()));
+            Map<Long, Item> items = new HashMap<>();
+            Map<Long, Integer> remaining = new HashMap<>();
+            for (Item item : itemRepository.findAllByIdForUpdate(itemIds)) {
+                items.put(item.getId(), item);
+                remaining.put(item.getId(), item.getCurrentStock());
+            }
+            
+            Map<Long, Integer> accepted = new TreeMap<>();
+            for (Map<Long, Integer> sale : sales) {
+                List<StockShortage> shortages = new ArrayList<>();
+                sale.forEach((itemId, quantity) -> {
+                    Integer available = remaining.get(itemId);
+                    if (available == null || available < quantity) {
+                        Item item = items.get(itemId);
+                        shortages.add(new StockShortage(itemId, item != null ? item.getItemName() : null, quantity, available));
+                    }
+                });
+                if (shortages.isEmpty()) {
+                    sale.forEach((itemId, quantity) -> {
+                        remaining.merge(itemId, -quantity, Integer::sum);
+                        accepted.merge(itemId, quantity, Integer::sum);
+                    });
+                }
+                results.add(shortages);
+            }
+            
+            if (!accepted.isEmpty() && !itemRepository.reduceStockBatch(accepted).isEmpty()) {
+                // Cannot happen while the rows are locked
+                throw new IllegalStateException("Stock changed while reserving for items " + accepted.keySet());
+            }
+            taken.addAll(accepted.keySet());
+        }
+        
+        if (!taken.isEmpty()) {
+            List<Long> itemIds = List.copyOf(taken);
+            itemCatalogCache.evictAfterCommit(itemIds);
+            stockChanged(itemIds);
+        }
+        return results;
     }
     
     /**
@@ -48,16 +183,55 @@ public class InventoryService {
      */
     @Transactional
     public void updateStockAfterReturn(Long itemId, int quantityReturned) {
-        if (quantityReturned <= 0) {
-            throw new IllegalArgumentException("Quantity returned must be positive");
+        if (!updateStockAfterReturn(List.of(new ItemQuantity(itemId, quantityReturned))).isEmpty()) {
+            throw new RuntimeException("Item not found with ID: " + itemId);
+        }
+    }
+    
+    /**
+     * Put stock back for all lines of one or more returns in one batched round trip.
+     * Quantities for the same item are summed and rows are updated in id order.
+     * Items deleted since they were sold cannot be restocked; they are skipped and reported.
+     * @param lines Item quantities returned (positive numbers)
+     * @return Ids of the items that no longer exist and were not restocked
+     */
+    @Transactional
+    public List<Long> updateStockAfterReturn(Collection<ItemQuantity> lines) {
+        Map<Long, Integer> quantitiesByItem = new TreeMap<>();
+        for (ItemQuantity line : lines) {
+            if (line.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity returned must be positive");
+            }
+            quantitiesByItem.merge(line.getItemId(), line.getQuantity(), Integer::sum);
+        }
+        if (quantitiesByItem.isEmpty()) {
+            return List.of();
         }
         
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("Item not found with ID: " + itemId));
+        List<Long> missing;
+        if (stockLedger.isPresent()) {
+            missing = new ArrayList<>();
+            for (Long itemId : quantitiesByItem.keySet()) {
+                if (stockLedger.get().getStock(itemId) == null) {
+                    missing.add(itemId);
+                }
+            }
+            Map<Long, Integer> known = new TreeMap<>(quantitiesByItem);
+            known.keySet().removeAll(missing);
+            if (!known.isEmpty() && !stockLedger.get().restock(known)) {
+                throw new IllegalStateException("Items removed while restocking " + known.keySet());
+            }
+        } else {
+            missing = itemRepository.addStockBatch(quantitiesByItem);
+        }
         
-        item.setCurrentStock(item.getCurrentStock() + quantityReturned);
-        item.setUpdatedAt(java.time.LocalDateTime.now());
-        itemRepository.save(item);
+        List<Long> itemIds = new ArrayList<>(quantitiesByItem.keySet());
+        itemIds.removeAll(missing);
+        if (!itemIds.isEmpty()) {
+            itemCatalogCache.evictAfterCommit(itemIds);
+            stockChanged(itemIds);
+        }
+        return missing;
     }
     
     /**
@@ -71,6 +245,11 @@ public class InventoryService {
             return false;
         }
         
+        if (stockLedger.isPresent()) {
+            Integer stock = stockLedger.get().getStock(itemId);
+            return stock != null && stock >= requiredQuantity;
+        }
+        
         return itemRepository.findById(itemId)
                 .map(item -> item.getCurrentStock() >= requiredQuantity)
                 .orElse(false);
@@ -83,8 +262,58 @@ public class InventoryService {
      * @throws RuntimeException if item not found
      */
     public int getCurrentStock(Long itemId) {
+        if (stockLedger.isPresent()) {
+            Integer stock = stockLedger.get().getStock(itemId);
+            if (stock == null) {
+                throw new RuntimeException("Item not found with ID: " + itemId);
+            }
+            return stock;
+        }
         return itemRepository.findById(itemId)
                 .map(Item::getCurrentStock)
                 .orElseThrow(() -> new RuntimeException("Item not found with ID: " + itemId));
     }
+    
+    /**
+     * Record that an item's stock was set to an absolute value outside of sales and returns
+     * (item create/edit, manual stock correction), so the stock ledger can follow it.
+     * @param itemId The ID of the item
+     * @param newStock The stock level that was written
+     */
+    public void stockOverwritten(Long itemId, int newStock) {
+        stockLedger.ifPresent(ledger -> ledger.overwrite(itemId, newStock));
+        stockChanged(List.of(itemId));
+    }
+    
+    /**
+     * Record that an item was deleted.
+     * @param itemId The ID of the item
+     */
+    public void itemRemoved(Long itemId) {
+        stockLedger.ifPresent(ledger -> ledger.forget(itemId));
+        stockChanged(List.of(itemId));
+    }
+    
+    /**
+     * Stock and reorder level of these items; items that do not exist are left out. With the
+     * stock ledger enabled the stock is the ledger's, which is ahead of the items table.
+     */
+    public List<StockLevel> getStockLevels(Collection<Long> itemIds) {
+        List<StockLevel> levels = itemRepository.findStockLevels(itemIds);
+        if (stockLedger.isEmpty()) {
+            return levels;
+        }
+        List<StockLevel> current = new ArrayList<>(levels.size());
+        for (StockLevel level : levels) {
+            Integer stock = stockLedger.get().getStock(level.getItemId());
+            current.add(stock != null ? level.withCurrentStock(stock) : level);
+        }
+        return current;
+    }
+    
+    // Every stock write ends here: low-stock crossings and pushed stock updates follow the commit
+    private void stockChanged(List<Long> itemIds) {
+        lowStockTracker.checkAfterCommit(itemIds);
+        eventPublisher.publishEvent(new StockChangedEvent(itemIds));
+    }
 }
@@ -0,0 +1,129 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.KeysetPage;
+import com.billingapp.entity.Bill;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders all bills of a date range as a ZIP of invoices or as one merged PDF.
+ *
+ * Bills are read in keyset pages and rendered in parallel on the bounded
+ * {@code pdfRenderExecutor}. Results are written in bill order, and at most a small window of
+ * rendered invoices is held in memory at a time; the merged PDF keeps page contents in a temp
+ * file until it is written out.
+ */
+@Slf4j
+@Service
+public class InvoiceExportService {
+
+    private static final int PAGE_SIZE = 200;
+
+    private final BillService billService;
+    private final InvoicePdfRenderer invoicePdfRenderer;
+    private final ExecutorService pdfRenderExecutor;
+    private final int window;
+
+    public InvoiceExportService(BillService billService,
+                                InvoicePdfRenderer invoicePdfRenderer,
+                                @Qualifier("pdfRenderExecutor") ExecutorService pdfRenderExecutor) {
+        this.billService = billService;
+        this.invoicePdfRenderer = invoicePdfRenderer;
+        this.pdfRenderExecutor = pdfRenderExecutor;
+        this.window = Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    public void writeZip(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        renderInOrder(startDate, endDate, (bill, pdf) -> {
+            zip.putNextEntry(new ZipEntry("bill_" + bill.getBillNumber().replaceAll("[^A-Za-z0-9._-]", "_") + ".pdf"));
+            zip.write(pdf);
+            zip.closeEntry();
+        });
+        zip.finish();
+        zip.flush();
+    }
+
+    public void writeMerged(LocalDate startDate, LocalDate endDate, OutputStream out) throws IOException {
+        PDFMergerUtility merger = new PDFMergerUtility();
+        // Each invoice is appended as soon as it is rendered; page contents go to a scratch file
+        try (PDDocument merged = new PDDocument(MemoryUsageSetting.setupTempFileOnly())) {
+            renderInOrder(startDate, endDate, (bill, pdf) -> {
+                try (PDDocument invoice = PDDocument.load(pdf)) {
+                    merger.appendDocument(merged, invoice);
+                }
+            });
+            if (merged.getNumberOfPages() == 0) {
+                merged.addPage(new PDPage(PDRectangle.A4));
+            }
+            merged.save(out);
+        }
+    }
+
+    private void renderInOrder(LocalDate startDate, LocalDate endDate, RenderedInvoiceSink sink) throws IOException {
+        Deque<RenderedInvoice> pending = new ArrayDeque<>();
+        try {
+            String cursor = null;
+            do {
+                KeysetPage<Bill> page = billService.searchBills(null, startDate, endDate, null, cursor, PAGE_SIZE);
+                for (Bill bill : page.getContent()) {
+                    pending.add(new RenderedInvoice(bill, pdfRenderExecutor.submit(() -> invoicePdfRenderer.render(bill))));
+                    if (pending.size() >= window) {
+                        writeNext(pending, sink);
+                    }
+                }
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            while (!pending.isEmpty()) {
+                writeNext(pending, sink);
+            }
+        } finally {
+            pending.forEach(rendered -> rendered.pdf.cancel(true));
+        }
+    }
+
+    private static void writeNext(Deque<RenderedInvoice> pending, RenderedInvoiceSink sink) throws IOException {
+        RenderedInvoice next = pending.poll();
+        try {
+            sink.accept(next.bill, next.pdf.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering invoices", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error rendering invoice for bill " + next.bill.getBillNumber(), e.getCause());
+        }
+    }
+
+    private static final class RenderedInvoice {
+        final Bill bill;
+        final Future<byte[]> pdf;
+
+        RenderedInvoice(Bill bill, Future<byte[]> pdf) {
+            this.bill = bill;
+            this.pdf = pdf;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RenderedInvoiceSink {
+        void accept(Bill bill, byte[] pdf) throws IOException;
+    }
+}
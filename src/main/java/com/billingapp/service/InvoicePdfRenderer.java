@@ -0,0 +1,379 @@
+package com.billingapp.service;
+
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.BillItem;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDFormContentStream;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDSimpleFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders bills as A4 invoices.
+ *
+ * Text that is the same on every page (title, column headings, footer) is drawn once at
+ * startup and kept as raw content-stream bytes; each document gets it as one form XObject
+ * that every page draws. Rows have a fixed height, so the page count is known before
+ * anything is drawn and long bills flow onto further pages with the headings repeated.
+ * Item names are measured with per-character widths cached at startup and cut to fit their
+ * column. Per-bill text is written with one text object per block, moving between cells with
+ * relative offsets. Instances are stateless and safe to use from several threads.
+ */
+@Component
+public class InvoicePdfRenderer {
+
+    private static final PDType1Font FONT_BOLD = PDType1Font.HELVETICA_BOLD;
+    private static final PDType1Font FONT_NORMAL = PDType1Font.HELVETICA;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final float COL_INDEX = 50;
+    private static final float COL_ITEM = 100;
+    private static final float COL_QTY = 350;
+    private static final float COL_PRICE = 400;
+    private static final float COL_TOTAL = 450;
+    private static final float PAGE_RIGHT = 545;
+    private static final float TABLE_HEADER_Y = 650;
+    private static final float FIRST_ROW_Y = TABLE_HEADER_Y - 20;
+    private static final float ROW_HEIGHT = 15;
+    private static final float ROW_FONT_SIZE = 10;
+    private static final float ITEM_NAME_WIDTH = COL_QTY - COL_ITEM - 8;
+    private static final float FOOTER_Y = 50;
+    // Lowest baseline any row or total may use, keeping clear of the footer
+    private static final float CONTENT_BOTTOM_Y = 80;
+    private static final float TOTALS_GAP = 20;
+    private static final float TOTALS_LINE_HEIGHT = 20;
+    private static final int TOTALS_LINES = 3;
+
+    static final int ROWS_PER_PAGE = (int) ((FIRST_ROW_Y - CONTENT_BOTTOM_Y) / ROW_HEIGHT) + 1;
+    // The last page also has to fit the totals block below its rows
+    static final int ROWS_ON_LAST_PAGE = (int) ((FIRST_ROW_Y - CONTENT_BOTTOM_Y - TOTALS_GAP
+            - (TOTALS_LINES - 1) * TOTALS_LINE_HEIGHT) / ROW_HEIGHT);
+
+    private final StaticLayout pageLayout;
+    private final FontMetrics normalMetrics;
+
+    public InvoicePdfRenderer() {
+        try {
+            this.pageLayout = StaticLayout.build(PDRectangle.A4, InvoicePdfRenderer::drawStaticParts);
+            this.normalMetrics = FontMetrics.of(FONT_NORMAL);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare invoice layout", e);
+        }
+    }
+
+    /**
+     * Render one bill straight to the given stream. The stream is not closed.
+     * The bill's items must already be loaded.
+     */
+    public void render(Bill bill, OutputStream out) throws IOException {
+        List<BillItem> items = bill.getItems();
+        int pageCount = pageCount(items.size());
+        String billNumber = normalMetrics.sanitize("Bill #: " + bill.getBillNumber());
+        String billDate = "Date: " + bill.getBillDate().format(DATE_FORMAT);
+        String customer = normalMetrics.sanitize("Customer: " + bill.getCustomerName());
+
+        try (PDDocument document = new PDDocument()) {
+            PDFormXObject staticParts = pageLayout.instantiate(document);
+            Iterator<BillItem> rows = items.iterator();
+            int index = 1;
+
+            for (int pageNumber = 1; pageNumber <= pageCount; pageNumber++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                boolean lastPage = pageNumber == pageCount;
+
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.drawForm(staticParts);
+
+                    content.beginText();
+                    content.setFont(FONT_NORMAL, 12);
+                    content.newLineAtOffset(50, 720);
+                    content.showText(billNumber);
+                    content.newLineAtOffset(350, 0);
+                    content.showText(billDate);
+                    content.newLineAtOffset(-350, -20);
+                    content.showText(customer);
+                    content.endText();
+
+                    String pageLabel = "Page " + pageNumber + " of " + pageCount;
+                    content.beginText();
+                    content.setFont(FONT_NORMAL, ROW_FONT_SIZE);
+                    content.newLineAtOffset(PAGE_RIGHT - normalMetrics.width(pageLabel, ROW_FONT_SIZE), FOOTER_Y);
+                    content.showText(pageLabel);
+                    content.endText();
+
+                    float y = FIRST_ROW_Y;
+                    int rowsOnPage = lastPage ? items.size() - index + 1 : Math.min(ROWS_PER_PAGE, items.size() - index + 1);
+                    if (rowsOnPage > 0) {
+                        content.beginText();
+                        content.setFont(FONT_NORMAL, ROW_FONT_SIZE);
+                        content.newLineAtOffset(COL_INDEX, y);
+                        for (int row = 0; row < rowsOnPage; row++) {
+                            BillItem item = rows.next();
+                            content.showText(String.valueOf(index++));
+                            content.newLineAtOffset(COL_ITEM - COL_INDEX, 0);
+                            content.showText(normalMetrics.fit(item.getItemName(), ROW_FONT_SIZE, ITEM_NAME_WIDTH));
+                            content.newLineAtOffset(COL_QTY - COL_ITEM, 0);
+                            content.showText(String.valueOf(item.getQuantity()));
+                            content.newLineAtOffset(COL_PRICE - COL_QTY, 0);
+                            content.showText(amount(item.getSellPrice()));
+                            content.newLineAtOffset(COL_TOTAL - COL_PRICE, 0);
+                            content.showText(amount(item.getTotal()));
+                            content.newLineAtOffset(COL_INDEX - COL_TOTAL, -ROW_HEIGHT);
+                            y -= ROW_HEIGHT;
+                        }
+                        content.endText();
+                    }
+
+                    if (lastPage) {
+                        drawTotals(content, bill, y - TOTALS_GAP);
+                    }
+                }
+            }
+
+            document.save(out);
+        }
+    }
+
+    public byte[] render(Bill bill) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        render(bill, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Pages needed for a bill: full pages of rows, then a last page that also holds the totals.
+     */
+    static int pageCount(int rowCount) {
+        int pages = Math.max(1, (rowCount + ROWS_PER_PAGE - 1) / ROWS_PER_PAGE);
+        int rowsOnLast = rowCount - (pages - 1) * ROWS_PER_PAGE;
+        return rowsOnLast > ROWS_ON_LAST_PAGE ? pages + 1 : pages;
+    }
+
+    private static void drawTotals(PDPageContentStream content, Bill bill, float y) throws IOException {
+        content.beginText();
+        content.setFont(FONT_NORMAL, 12);
+        content.newLineAtOffset(COL_QTY, y);
+        content.showText("Subtotal:");
+        content.newLineAtOffset(COL_TOTAL - COL_QTY, 0);
+        content.showText(amount(bill.getSubtotal()));
+        content.newLineAtOffset(COL_QTY - COL_TOTAL, -TOTALS_LINE_HEIGHT);
+
+        if (bill.getDiscountAmount().compareTo(BigDecimal.ZERO) > 0) {
+            content.showText("Discount:");
+            content.newLineAtOffset(COL_TOTAL - COL_QTY, 0);
+            content.showText("-" + amount(bill.getDiscountAmount()));
+            content.newLineAtOffset(COL_QTY - COL_TOTAL, -TOTALS_LINE_HEIGHT);
+        }
+
+        content.setFont(FONT_BOLD, 12);
+        content.showText("Total:");
+        content.newLineAtOffset(COL_TOTAL - COL_QTY, 0);
+        content.showText(amount(bill.getGrandTotal()));
+        content.endText();
+    }
+
+    private static void drawStaticParts(PDFormContentStream content) throws IOException {
+        content.beginText();
+        content.setFont(FONT_BOLD, 18);
+        content.newLineAtOffset(50, 750);
+        content.showText("INVOICE");
+        content.endText();
+
+        content.beginText();
+        content.setFont(FONT_BOLD, ROW_FONT_SIZE);
+        content.newLineAtOffset(COL_INDEX, TABLE_HEADER_Y);
+        content.showText("#");
+        content.newLineAtOffset(COL_ITEM - COL_INDEX, 0);
+        content.showText("Item");
+        content.newLineAtOffset(COL_QTY - COL_ITEM, 0);
+        content.showText("Qty");
+        content.newLineAtOffset(COL_PRICE - COL_QTY, 0);
+        content.showText("Price");
+        content.newLineAtOffset(COL_TOTAL - COL_PRICE, 0);
+        content.showText("Total");
+        content.endText();
+
+        content.beginText();
+        content.setFont(FONT_NORMAL, ROW_FONT_SIZE);
+        content.newLineAtOffset(50, FOOTER_Y);
+        content.showText("Thank you for your business!");
+        content.endText();
+    }
+
+    private static String amount(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    /**
+     * Advance widths of every character a simple font can encode, looked up once so that
+     * measuring a string is a plain array walk. Characters the font cannot encode are shown
+     * as {@code ?} instead of failing the whole document.
+     */
+    static final class FontMetrics {
+
+        private static final String ELLIPSIS = "...";
+
+        // Width in 1/1000 text space units, indexed by char; NaN if the font cannot encode it
+        private final float[] widths;
+
+        private FontMetrics(float[] widths) {
+            this.widths = widths;
+        }
+
+        static FontMetrics of(PDSimpleFont font) throws IOException {
+            Map<Character, Float> known = new HashMap<>();
+            GlyphList glyphs = GlyphList.getAdobeGlyphList();
+            for (Map.Entry<Integer, String> entry : font.getEncoding().getCodeToNameMap().entrySet()) {
+                String unicode = glyphs.toUnicode(entry.getValue());
+                if (unicode == null || unicode.length() != 1 || known.containsKey(unicode.charAt(0))) {
+                    continue;
+                }
+                try {
+                    font.encode(unicode);
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                known.put(unicode.charAt(0), font.getWidth(entry.getKey()));
+            }
+
+            int size = known.keySet().stream().mapToInt(c -> c).max().orElse(0) + 1;
+            float[] widths = new float[size];
+            Arrays.fill(widths, Float.NaN);
+            known.forEach((c, width) -> widths[c] = width);
+            return new FontMetrics(widths);
+        }
+
+        /**
+         * The text with whitespace folded to spaces and unsupported characters replaced by {@code ?}.
+         */
+        String sanitize(String text) {
+            if (text == null) {
+                return "";
+            }
+            StringBuilder result = null;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                char shown = supported(c) ? c : Character.isWhitespace(c) || Character.isSpaceChar(c) ? ' ' : '?';
+                if (shown != c && result == null) {
+                    result = new StringBuilder(text.length()).append(text, 0, i);
+                }
+                if (result != null) {
+                    result.append(shown);
+                }
+            }
+            return result != null ? result.toString() : text;
+        }
+
+        float width(String sanitized, float fontSize) {
+            float total = 0;
+            for (int i = 0; i < sanitized.length(); i++) {
+                total += widths[sanitized.charAt(i)];
+            }
+            return total * fontSize / 1000f;
+        }
+
+        /**
+         * Sanitized text cut down, with an ellipsis, to at most {@code maxWidth} at the given size.
+         */
+        String fit(String text, float fontSize, float maxWidth) {
+            String sanitized = sanitize(text);
+            float limit = maxWidth * 1000f / fontSize;
+            float ellipsisLimit = limit - widths['.'] * ELLIPSIS.length();
+            float total = 0;
+            int cut = -1;
+            for (int i = 0; i < sanitized.length(); i++) {
+                total += widths[sanitized.charAt(i)];
+                if (total > limit) {
+                    return sanitized.substring(0, Math.max(cut, 0)) + ELLIPSIS;
+                }
+                if (total <= ellipsisLimit) {
+                    cut = i + 1;
+                }
+            }
+            return sanitized;
+        }
+
+        private boolean supported(char c) {
+            return c < widths.length && !Float.isNaN(widths[c]);
+        }
+    }
+
+    /**
+     * Content drawn once into a scratch form and replayed into every document as a form XObject.
+     */
+    static final class StaticLayout {
+
+        private final byte[] content;
+        private final Map<COSName, PDFont> fonts;
+        private final PDRectangle bbox;
+
+        private StaticLayout(byte[] content, Map<COSName, PDFont> fonts, PDRectangle bbox) {
+            this.content = content;
+            this.fonts = fonts;
+            this.bbox = bbox;
+        }
+
+        static StaticLayout build(PDRectangle bbox, Drawer drawer) throws IOException {
+            try (PDDocument scratch = new PDDocument()) {
+                PDFormXObject form = new PDFormXObject(scratch);
+                form.setResources(new PDResources());
+                form.setBBox(bbox);
+                try (PDFormContentStream stream = new PDFormContentStream(form)) {
+                    drawer.draw(stream);
+                }
+
+                byte[] content;
+                try (InputStream in = form.getContentStream().createInputStream()) {
+                    content = in.readAllBytes();
+                }
+                // add() hands back the name a font was already registered under
+                Map<COSName, PDFont> fonts = new LinkedHashMap<>();
+                for (PDFont font : new PDFont[] {FONT_NORMAL, FONT_BOLD}) {
+                    fonts.put(form.getResources().add(font), font);
+                }
+                return new StaticLayout(content, fonts, bbox);
+            }
+        }
+
+        PDFormXObject instantiate(PDDocument document) throws IOException {
+            PDFormXObject form = new PDFormXObject(
+                    new PDStream(document, new ByteArrayInputStream(content), COSName.FLATE_DECODE));
+            PDResources resources = new PDResources();
+            fonts.forEach(resources::put);
+            form.setResources(resources);
+            form.setBBox(new PDRectangle(bbox.getWidth(), bbox.getHeight()));
+            return form;
+        }
+    }
+
+    @FunctionalInterface
+    interface Drawer {
+        void draw(PDFormContentStream content) throws IOException;
+    }
+}
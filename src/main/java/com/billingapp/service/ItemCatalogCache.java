@@ -0,0 +1,164 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.ItemSummary;
+import com.billingapp.entity.Item;
+import com.billingapp.repository.ItemRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache of items indexed by id and by barcode, used by the scan-to-bill path.
+ *
+ * Cached entities are detached and callers always receive a copy, so editing a returned
+ * item cannot leak into the cache. Writers evict affected ids once their transaction commits.
+ */
+@Slf4j
+@Component
+public class ItemCatalogCache {
+
+    private final ItemRepository itemRepository;
+    private final long maxSize;
+    private final Cache<Long, Item> itemsById;
+    private final Cache<String, Long> idsByBarcode;
+
+    public ItemCatalogCache(ItemRepository itemRepository,
+                            @Value("${billing.item-cache.max-size:50000}") long maxSize) {
+        this.itemRepository = itemRepository;
+        this.maxSize = maxSize;
+        this.idsByBarcode = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.itemsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .removalListener((Long id, Item item, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED && item != null && item.getBarcode() != null) {
+                        idsByBarcode.asMap().remove(item.getBarcode(), id);
+                    }
+                })
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Item> items = itemRepository.findAll();
+        for (Item item : items) {
+            if (itemsById.estimatedSize() >= maxSize) {
+                break;
+            }
+            put(item);
+        }
+        log.info("Item catalog cache warmed with {} items", itemsById.estimatedSize());
+    }
+
+    public Optional<Item> getById(Long id) {
+        return Optional.ofNullable(load(id)).map(ItemCatalogCache::copyOf);
+    }
+
+    /**
+     * Read-only view of a cached item. Summaries are immutable, so no defensive copy is made.
+     */
+    public Optional<ItemSummary> getSummaryById(Long id) {
+        return Optional.ofNullable(load(id)).map(ItemSummary::fromEntity);
+    }
+
+    public Optional<Item> getByBarcode(String barcode) {
+        Long id = idsByBarcode.getIfPresent(barcode);
+        if (id != null) {
+            Item item = itemsById.getIfPresent(id);
+            // The barcode may have moved to another item since it was indexed
+            if (item != null && barcode.equals(item.getBarcode())) {
+                return Optional.of(copyOf(item));
+            }
+            idsByBarcode.invalidate(barcode);
+        }
+
+        Optional<Item> loaded = itemRepository.findByBarcode(barcode);
+        loaded.ifPresent(this::put);
+        return loaded.map(ItemCatalogCache::copyOf);
+    }
+
+    /**
+     * Drop the given items once the current transaction commits, or immediately when
+     * there is no transaction. Evicting before commit would let a concurrent reader
+     * re-cache the old row.
+     */
+    public void evictAfterCommit(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            itemsById.invalidateAll(itemIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemsById.invalidateAll(itemIds);
+            }
+        });
+    }
+
+    public void evictAfterCommit(Long itemId) {
+        evictAfterCommit(List.of(itemId));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", itemsById.estimatedSize());
+        stats.put("maxSize", maxSize);
+        stats.put("byId", describe(itemsById.stats()));
+        stats.put("byBarcode", describe(idsByBarcode.stats()));
+        return stats;
+    }
+
+    private Item load(Long id) {
+        return itemsById.get(id, key -> {
+            Item loaded = itemRepository.findById(key).orElse(null);
+            if (loaded != null && loaded.getBarcode() != null) {
+                idsByBarcode.put(loaded.getBarcode(), loaded.getId());
+            }
+            return loaded;
+        });
+    }
+
+    private void put(Item item) {
+        itemsById.put(item.getId(), item);
+        if (item.getBarcode() != null) {
+            idsByBarcode.put(item.getBarcode(), item.getId());
+        }
+    }
+
+    private static Map<String, Object> describe(CacheStats stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private static Item copyOf(Item source) {
+        Item copy = new Item(source.getItemName(), source.getCategory(), source.getPurchasePrice(),
+                source.getMrp(), source.getSellPrice(), source.getMinSellPrice(), source.getCurrentStock(),
+                source.getMinStockLevel(), source.getUnit(), source.getBarcode());
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,227 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.ItemSalesStats;
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.BillItem;
+import com.billingapp.entity.BillReturn;
+import com.billingapp.entity.BillReturnItem;
+import com.billingapp.entity.ItemSalesDaily;
+import com.billingapp.repository.ItemSalesDailyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Item velocity served from {@code item_sales_daily}, one row per item and day.
+ *
+ * Like {@link SalesReportService}, bills are added and removed in the transaction that saves
+ * or deletes them, returns are netted into the day they are made on, and a nightly job
+ * recomputes recent days from {@code bill_items} and {@code bill_return_items}, so top
+ * sellers, slow movers and days of stock cost O(items sold in the window), not O(bill lines).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemSalesService {
+
+    public enum Ranking { QUANTITY, REVENUE }
+
+    public static final int DEFAULT_WINDOW_DAYS = 7;
+    public static final int MAX_WINDOW_DAYS = 366;
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 200;
+
+    private final ItemSalesDailyRepository itemSalesRepository;
+
+    @Value("${billing.item-sales.rebuild-days:7}")
+    private int rebuildDays;
+
+    /**
+     * Add the lines of a newly saved bill to their items' daily totals. Must run in the
+     * transaction that saved it.
+     */
+    public void recordBill(Bill bill) {
+        recordBills(List.of(bill));
+    }
+
+    /**
+     * Add several newly saved bills, with one row write per item and day they touch.
+     */
+    public void recordBills(Collection<Bill> bills) {
+        itemSalesRepository.addToDays(aggregate(bills, 1));
+    }
+
+    /**
+     * Take a bill that is being deleted back out of its items' daily totals.
+     */
+    public void reverseBill(Bill bill) {
+        itemSalesRepository.addToDays(aggregate(List.of(bill), -1));
+    }
+
+    /**
+     * Take newly saved returns off the day they were made on, with one row write per item and
+     * day. Must run in the transaction that saved them.
+     */
+    public void recordReturns(Collection<BillReturn> returns) {
+        itemSalesRepository.addToDays(aggregateReturns(returns, 1));
+    }
+
+    /**
+     * Put returns of a bill that is being deleted back into their days' totals.
+     */
+    public void reverseReturns(Collection<BillReturn> returns) {
+        itemSalesRepository.addToDays(aggregateReturns(returns, -1));
+    }
+
+    /**
+     * Items that sold most in {@code [startDate, endDate]}, by units or by revenue.
+     */
+    @Transactional(readOnly = true)
+    public List<ItemSalesStats> getTopSellers(LocalDate startDate, LocalDate endDate, String rankBy, int limit) {
+        int days = windowDays(startDate, endDate);
+        PageRequest page = PageRequest.of(0, clamp(limit));
+        List<ItemSalesStats> stats = parseRanking(rankBy) == Ranking.REVENUE
+                ? itemSalesRepository.findTopByRevenue(startDate, endDate, page)
+                : itemSalesRepository.findTopByQuantity(startDate, endDate, page);
+        return over(stats, days);
+    }
+
+    /**
+     * Items in stock that sold least in the window, including those that did not sell at all.
+     */
+    @Transactional(readOnly = true)
+    public List<ItemSalesStats> getSlowMovers(LocalDate startDate, LocalDate endDate, int limit) {
+        int days = windowDays(startDate, endDate);
+        return over(itemSalesRepository.findSlowMovers(startDate, endDate, PageRequest.of(0, clamp(limit))), days);
+    }
+
+    /**
+     * Items that run out soonest if they keep selling at their average rate over the window.
+     * Items that did not sell in the window, net of returns, are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<ItemSalesStats> getDaysOfStock(LocalDate startDate, LocalDate endDate, int limit) {
+        int days = windowDays(startDate, endDate);
+        return over(itemSalesRepository.findByDaysOfStock(startDate, endDate, PageRequest.of(0, clamp(limit))), days);
+    }
+
+    /**
+     * Sales rate and days of stock of one item; empty when the item does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ItemSalesStats> getItemStats(Long itemId, LocalDate startDate, LocalDate endDate) {
+        int days = windowDays(startDate, endDate);
+        return itemSalesRepository.findByItemId(itemId, startDate, endDate).map(stats -> stats.over(days));
+    }
+
+    /**
+     * Recompute the rows for {@code [startDate, endDate]} from bills; null bounds mean unbounded.
+     * @return Number of rows written
+     */
+    @Transactional
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        int rows = itemSalesRepository.rebuild(startDate, endDate);
+        log.info("Rebuilt item sales for {} to {}: {} rows", startDate, endDate, rows);
+        return rows;
+    }
+
+    @Scheduled(cron = "${billing.item-sales.rebuild-cron:0 35 2 * * *}")
+    public void rebuildRecentDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            rebuild(yesterday.minusDays(rebuildDays - 1L), yesterday);
+        } catch (Exception e) {
+            log.error("Item sales rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Collection<ItemSalesDaily> aggregate(Collection<Bill> bills, int sign) {
+        Map<ItemSalesDaily.Key, ItemSalesDaily> rows = new LinkedHashMap<>();
+        for (Bill bill : bills) {
+            LocalDate day = bill.getBillDate().toLocalDate();
+            // An item on two lines of one bill still counts as one bill
+            Set<Long> seen = new HashSet<>();
+            for (BillItem line : bill.getItems()) {
+                ItemSalesDaily row = rows.computeIfAbsent(new ItemSalesDaily.Key(day, line.getItemId()), key -> {
+                    ItemSalesDaily created = new ItemSalesDaily();
+                    created.setSaleDate(key.getSaleDate());
+                    created.setItemId(key.getItemId());
+                    return created;
+                });
+                row.setQuantity(row.getQuantity() + (long) sign * line.getQuantity());
+                BigDecimal total = line.getTotal() != null ? line.getTotal() : BigDecimal.ZERO;
+                row.setRevenue(row.getRevenue().add(sign < 0 ? total.negate() : total));
+                if (seen.add(line.getItemId())) {
+                    row.setBillCount(row.getBillCount() + sign);
+                }
+            }
+        }
+        return rows.values();
+    }
+
+    private static Collection<ItemSalesDaily> aggregateReturns(Collection<BillReturn> returns, int sign) {
+        Map<ItemSalesDaily.Key, ItemSalesDaily> rows = new LinkedHashMap<>();
+        for (BillReturn billReturn : returns) {
+            LocalDate day = billReturn.getReturnDate().toLocalDate();
+            for (BillReturnItem line : billReturn.getItems()) {
+                ItemSalesDaily row = rows.computeIfAbsent(new ItemSalesDaily.Key(day, line.getItemId()), key -> {
+                    ItemSalesDaily created = new ItemSalesDaily();
+                    created.setSaleDate(key.getSaleDate());
+                    created.setItemId(key.getItemId());
+                    return created;
+                });
+                row.setQuantity(row.getQuantity() - (long) sign * line.getQuantity());
+                row.setReturnedQuantity(row.getReturnedQuantity() + (long) sign * line.getQuantity());
+                row.setRevenue(row.getRevenue().subtract(sign < 0 ? line.getTotal().negate() : line.getTotal()));
+            }
+        }
+        return rows.values();
+    }
+
+    private static List<ItemSalesStats> over(List<ItemSalesStats> stats, int days) {
+        return stats.stream().map(s -> s.over(days)).collect(Collectors.toList());
+    }
+
+    private static int windowDays(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Window must be at most " + MAX_WINDOW_DAYS + " days");
+        }
+        return (int) days;
+    }
+
+    private static Ranking parseRanking(String rankBy) {
+        if (rankBy == null || rankBy.isBlank()) {
+            return Ranking.QUANTITY;
+        }
+        try {
+            return Ranking.valueOf(rankBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown ranking: " + rankBy + " (use quantity or revenue)");
+        }
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
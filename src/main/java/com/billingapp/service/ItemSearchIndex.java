@@ -0,0 +1,282 @@
+package com.billingapp.service;
+
+import com.billingapp.entity.Item;
+import com.billingapp.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram index over item name, barcode and category for the POS type-ahead.
+ *
+ * Queries of three or more characters intersect the posting lists of their trigrams and
+ * then confirm a substring match, so they behave like the old {@code LIKE '%q%'} search.
+ * One- and two-character queries match the start of any word. Results are ranked (exact
+ * barcode, name prefix, word prefix, substring, category) and only the top N are kept.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    // Marks the one- and two-character word-prefix grams so they never clash with trigrams
+    private static final char PREFIX_MARK = '\u0001';
+
+    private final ItemRepository itemRepository;
+    private final ConcurrentHashMap<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        postings.clear();
+        entries.clear();
+        for (Item item : itemRepository.findAll()) {
+            add(Entry.of(item));
+        }
+        log.info("Item search index built for {} items ({} grams)", entries.size(), postings.size());
+    }
+
+    /**
+     * Ids of the best matching items, best first.
+     * @param query Search text; blank returns items in name order
+     * @param limit Maximum number of results, clamped to {@link #MAX_LIMIT}
+     */
+    public List<Long> search(String query, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String q = query == null ? "" : normalize(query.trim());
+
+        Collection<Entry> candidates;
+        if (q.isEmpty()) {
+            candidates = entries.values();
+        } else {
+            candidates = candidates(q);
+        }
+
+        // Keep the best `max` matches in a heap whose head is the worst of them; with no query
+        // every item ranks the same, so the list is plainly alphabetical
+        Comparator<Match> byName = Comparator.comparing((Match m) -> m.entry.name).thenComparingLong(m -> m.entry.id);
+        Comparator<Match> order = q.isEmpty() ? byName : Comparator.comparingInt((Match m) -> m.rank)
+                .thenComparingInt(m -> m.entry.name.length())
+                .thenComparing(byName);
+        PriorityQueue<Match> best = new PriorityQueue<>(max + 1, order.reversed());
+        for (Entry entry : candidates) {
+            int rank = q.isEmpty() ? 0 : rank(entry, q);
+            if (rank < 0) {
+                continue;
+            }
+            best.add(new Match(entry, rank));
+            if (best.size() > max) {
+                best.poll();
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(order);
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            ids.add(match.entry.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Re-index an item once the current transaction commits (immediately if there is none).
+     */
+    public void indexAfterCommit(Item item) {
+        Entry entry = Entry.of(item);
+        afterCommit(() -> put(entry));
+    }
+
+    public void removeAfterCommit(Long itemId) {
+        afterCommit(() -> remove(itemId));
+    }
+
+    private synchronized void put(Entry entry) {
+        remove(entry.id);
+        add(entry);
+    }
+
+    private synchronized void remove(Long itemId) {
+        Entry old = entries.remove(itemId);
+        if (old == null) {
+            return;
+        }
+        for (String gram : old.grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram, ids);
+                }
+            }
+        }
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id, entry);
+        for (String gram : entry.grams) {
+            postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(entry.id);
+        }
+    }
+
+    private Collection<Entry> candidates(String q) {
+        List<String> grams = new ArrayList<>();
+        if (q.length() < 3) {
+            grams.add(PREFIX_MARK + q);
+        } else {
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                grams.add(q.substring(i, i + 3));
+            }
+        }
+
+        // Intersect starting from the rarest gram
+        List<Set<Long>> lists = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Entry> result = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            Entry entry = inAll ? entries.get(id) : null;
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    // Lower is better; -1 means the trigram hit was not a real match
+    private static int rank(Entry entry, String q) {
+        if (q.equals(entry.barcode)) {
+            return 0;
+        }
+        if (entry.name.startsWith(q)) {
+            return 1;
+        }
+        if (startsWord(entry.name, q)) {
+            return 2;
+        }
+        if (q.length() >= 3 && entry.name.contains(q)) {
+            return 3;
+        }
+        if (entry.barcode != null && (entry.barcode.startsWith(q) || (q.length() >= 3 && entry.barcode.contains(q)))) {
+            return 4;
+        }
+        if (entry.category != null && (startsWord(entry.category, q) || (q.length() >= 3 && entry.category.contains(q)))) {
+            return 5;
+        }
+        return -1;
+    }
+
+    private static boolean startsWord(String text, String q) {
+        int from = 0;
+        while ((from = text.indexOf(q, from)) >= 0) {
+            if (from == 0 || !Character.isLetterOrDigit(text.charAt(from - 1))) {
+                return true;
+            }
+            from++;
+        }
+        return false;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Entry {
+        final long id;
+        final String name;
+        final String barcode;
+        final String category;
+        final Set<String> grams;
+
+        private Entry(long id, String name, String barcode, String category) {
+            this.id = id;
+            this.name = name;
+            this.barcode = barcode;
+            this.category = category;
+            this.grams = new HashSet<>();
+            addGrams(name);
+            addGrams(barcode);
+            addGrams(category);
+        }
+
+        static Entry of(Item item) {
+            return new Entry(item.getId(),
+                    item.getItemName() != null ? normalize(item.getItemName()) : "",
+                    item.getBarcode() != null ? normalize(item.getBarcode()) : null,
+                    item.getCategory() != null ? normalize(item.getCategory()) : null);
+        }
+
+        private void addGrams(String text) {
+            if (text == null) {
+                return;
+            }
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                grams.add(text.substring(i, i + 3));
+            }
+            // Word prefixes of length one and two for short queries
+            for (int i = 0; i < text.length(); i++) {
+                if (Character.isLetterOrDigit(text.charAt(i))
+                        && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                    grams.add(PREFIX_MARK + text.substring(i, i + 1));
+                    if (i + 2 <= text.length()) {
+                        grams.add(PREFIX_MARK + text.substring(i, i + 2));
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Match {
+        final Entry entry;
+        final int rank;
+
+        Match(Entry entry, int rank) {
+            this.entry = entry;
+            this.rank = rank;
+        }
+    }
+}
@@ -1,27 +1,86 @@
 package com.billingapp.service;
 
 import com.billingapp.dto.ItemQuantity;
+import com.billingapp.dto.ItemSummary;
+import com.billingapp.dto.KeysetPage;
+import com.billingapp.dto.PosCatalogItem;
+import com.billingapp.dto.ResourceVersion;
 import com.billingapp.entity.Item;
+import com.billingapp.entity.SyncTombstone;
 import com.billingapp.exception.InsufficientStockException;
 import com.billingapp.repository.ItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
 
 @Service
 public class ItemService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = KeysetPage.MAX_PAGE_SIZE;
+    
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "itemName", "category", "sellPrice", "mrp", "currentStock", "minStockLevel");
+    
     @Autowired
     private ItemRepository itemRepository;
     
-    public List<Item> getAllItems() {
-        return itemRepository.findAll();
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private ItemCatalogCache itemCatalogCache;
+    
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    
+    @Autowired
+    private SyncService syncService;
+    
+    @Autowired
+    private LowStockTracker lowStockTracker;
+    
+    /**
+     * One page of items. Without {@code withCount} the result is a {@link Slice} and no count
+     * query runs; with it the result is a {@link Page} carrying the total.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ItemSummary> getAllItems(Pageable pageable, boolean withCount) {
+        Slice<ItemSummary> slice = itemRepository.findSummaries(pageRequest(pageable));
+        return withCount ? toPage(slice, itemRepository::count) : slice;
+    }
+    
+    /**
+     * Row count and newest change of the item table, the validator for catalog responses.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getCatalogVersion() {
+        return itemRepository.findCatalogVersion();
+    }
+    
+    /**
+     * Compact catalog for the tills: id, name, barcode, sell price, stock and unit of every item.
+     */
+    @Transactional(readOnly = true)
+    public List<PosCatalogItem> getPosCatalog() {
+        return itemRepository.findPosCatalog();
     }
     
     public Optional<Item> getItemById(Long id) {
-        return itemRepository.findById(id);
+        return itemCatalogCache.getById(id);
     }
     
     @Transactional
@@ -41,7 +100,11 @@ public class ItemService {
             throw new RuntimeException("Item with name '" + item.getItemName() + "' already exists");
         }
         
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        inventoryService.stockOverwritten(saved.getId(), saved.getCurrentStock());
+        itemCatalogCache.evictAfterCommit(saved.getId());
+        itemSearchIndex.indexAfterCommit(saved);
+        return saved;
     }
     
     public Item updateItem(Long id, Item itemDetails) {
@@ -58,32 +121,62 @@ public class ItemService {
         item.setMinStockLevel(itemDetails.getMinStockLevel());
         item.setUnit(itemDetails.getUnit());
         
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        inventoryService.stockOverwritten(saved.getId(), saved.getCurrentStock());
+        itemCatalogCache.evictAfterCommit(saved.getId());
+        itemSearchIndex.indexAfterCommit(saved);
+        return saved;
     }
     
+    @Transactional
     public void deleteItem(Long id) {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
         itemRepository.delete(item);
+        syncService.recordDeletion(SyncTombstone.ITEM, id);
+        inventoryService.itemRemoved(id);
+        itemCatalogCache.evictAfterCommit(id);
+        itemSearchIndex.removeAfterCommit(id);
     }
     
-    public List<Item> searchItems(String query) {
-        if (query == null || query.trim().isEmpty()) {
-            return itemRepository.findAll();
+    /**
+     * Ranked type-ahead search over name, barcode and category, served from the in-memory index.
+     */
+    public List<ItemSummary> searchItems(String query, int limit) {
+        List<ItemSummary> items = new ArrayList<>();
+        for (Long id : itemSearchIndex.search(query, limit)) {
+            itemCatalogCache.getSummaryById(id).ifPresent(items::add);
         }
-        return itemRepository.searchByNameOrBarcode(query.toLowerCase());
+        return items;
     }
     
     public Optional<Item> getItemByBarcode(String barcode) {
-        return itemRepository.findByBarcode(barcode);
+        return itemCatalogCache.getByBarcode(barcode);
+    }
+    
+    /**
+     * Items at or below their reorder level. Only the rows tracked by {@link LowStockTracker}
+     * are read, and the count is the size of that set.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ItemSummary> getLowStockItems(Pageable pageable, boolean withCount) {
+        List<Long> ids = lowStockTracker.getLowStockIds();
+        PageRequest pageRequest = pageRequest(pageable);
+        if (ids.isEmpty()) {
+            return withCount ? Page.empty(pageRequest) : new SliceImpl<>(List.of(), pageRequest, false);
+        }
+        Slice<ItemSummary> slice = itemRepository.findSummariesByIdIn(ids, pageRequest);
+        return withCount ? toPage(slice, ids::size) : slice;
     }
     
-    public List<Item> getLowStockItems() {
-        return itemRepository.findLowStockItems();
+    @Transactional(readOnly = true)
+    public Slice<ItemSummary> getItemsByCategory(String category, Pageable pageable, boolean withCount) {
+        Slice<ItemSummary> slice = itemRepository.findSummariesByCategory(category, pageRequest(pageable));
+        return withCount ? toPage(slice, () -> itemRepository.countByCategory(category)) : slice;
     }
     
-    public List<Item> getItemsByCategory(String category) {
-        return itemRepository.findByCategory(category);
+    public Map<String, Object> getCatalogCacheStats() {
+        return itemCatalogCache.stats();
     }
     
     public boolean itemNameExists(String itemName) {
@@ -94,38 +187,36 @@ public class ItemService {
         return barcode != null && itemRepository.existsByBarcode(barcode);
     }
     
-    @Transactional
+    @Transactional(rollbackFor = InsufficientStockException.class)
     public void reduceStock(Long itemId, int quantity) throws InsufficientStockException {
-        Integer updated = itemRepository.reduceStock(itemId, quantity);
-        if (updated == 0) {
-            Integer currentStock = itemRepository.getCurrentStock(itemId);
-            if (currentStock == null) {
-                throw new RuntimeException("Item not found with id: " + itemId);
-            }
-            throw new InsufficientStockException("Insufficient stock for item " + itemId + 
-                                              ". Requested: " + quantity + ", Available: " + currentStock);
-        }
+        inventoryService.updateStockAfterSale(List.of(new ItemQuantity(itemId, quantity)));
     }
     
-    @Transactional
+    @Transactional(rollbackFor = InsufficientStockException.class)
     public void updateStockForBill(List<ItemQuantity> items) throws InsufficientStockException {
-        // First, verify all items have sufficient stock
-        for (ItemQuantity itemQty : items) {
-            Integer currentStock = itemRepository.getCurrentStock(itemQty.getItemId());
-            if (currentStock == null) {
-                throw new RuntimeException("Item not found with id: " + itemQty.getItemId());
-            }
-            if (currentStock < itemQty.getQuantity()) {
-                throw new InsufficientStockException("Insufficient stock for item " + itemQty.getItemId() + 
-                                                  ". Requested: " + itemQty.getQuantity() + 
-                                                  ", Available: " + currentStock);
+        // Applied as one conditional batch; any shortage rejects the whole request
+        inventoryService.updateStockAfterSale(items);
+    }
+    
+    // Only sort on known columns (anything else would fail in the query), always tie-break on id
+    private static PageRequest pageRequest(Pageable pageable) {
+        Sort sort = Sort.unsorted();
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort items by '" + order.getProperty()
+                        + "'; use one of " + SORTABLE_PROPERTIES);
             }
+            sort = sort.and(Sort.by(order));
         }
-        
-        // If all items have sufficient stock, update the stock
-        for (ItemQuantity itemQty : items) {
-            reduceStock(itemQty.getItemId(), itemQty.getQuantity());
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
         }
+        return PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_PAGE_SIZE), sort);
+    }
+    
+    // Spring Data skips the count when the slice already shows the total (short first page)
+    private static Page<ItemSummary> toPage(Slice<ItemSummary> slice, LongSupplier count) {
+        return PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(), count);
     }
     
     @Transactional
@@ -134,6 +225,9 @@ public class ItemService {
             .orElseThrow(() -> new RuntimeException("Item not found with id: " + id));
             
         item.setCurrentStock(newStock);
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        inventoryService.stockOverwritten(id, newStock);
+        itemCatalogCache.evictAfterCommit(id);
+        return saved;
     }
 }
@@ -0,0 +1,154 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.StockLevel;
+import com.billingapp.event.LowStockEvent;
+import com.billingapp.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ids of items at or below their reorder level, kept in memory.
+ *
+ * Loaded once at startup (through the partial index idx_items_low_stock), then maintained
+ * from the writers: every stock change re-reads the touched items by primary key after its
+ * transaction commits, and a {@link LowStockEvent} is published for each item that crossed
+ * its level. A periodic reconcile against the table repairs anything missed.
+ */
+@Slf4j
+@Component
+public class LowStockTracker {
+
+    private final ItemRepository itemRepository;
+    // Present only when billing.stock-ledger.enabled=true; its counters are ahead of the table
+    private final Optional<StockLedger> stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<Long> lowStockIds = new ConcurrentSkipListSet<>();
+    // Readings are stamped before they start; an item only takes a reading newer than its last one
+    private final AtomicLong readings = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> appliedReadings = new ConcurrentHashMap<>();
+
+    public LowStockTracker(ItemRepository itemRepository, Optional<StockLedger> stockLedger,
+                           ApplicationEventPublisher eventPublisher) {
+        this.itemRepository = itemRepository;
+        this.stockLedger = stockLedger;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lowStockIds.addAll(itemRepository.findLowStockIds());
+        reconcile();
+        log.info("Low-stock tracker loaded with {} items", lowStockIds.size());
+    }
+
+    /**
+     * Ids of the items currently at or below their reorder level, in id order.
+     */
+    public List<Long> getLowStockIds() {
+        return new ArrayList<>(lowStockIds);
+    }
+
+    public int count() {
+        return lowStockIds.size();
+    }
+
+    /**
+     * Re-check these items once the current transaction commits (at once without one).
+     * Rolled-back changes are never seen.
+     */
+    public void checkAfterCommit(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            check(itemIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                check(itemIds);
+            }
+        });
+    }
+
+    public void checkAfterCommit(Long itemId) {
+        checkAfterCommit(List.of(itemId));
+    }
+
+    /**
+     * Compare the tracked set with the table and re-check every item on which they disagree.
+     */
+    @Scheduled(fixedDelayString = "${billing.low-stock.reconcile-interval-ms:300000}",
+               initialDelayString = "${billing.low-stock.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            Set<Long> differing = new TreeSet<>(itemRepository.findLowStockIds());
+            for (Long id : lowStockIds) {
+                if (!differing.remove(id)) {
+                    differing.add(id);
+                }
+            }
+            if (stockLedger.isPresent()) {
+                // The table lags the ledger, so every tracked item is worth a second look
+                differing.addAll(lowStockIds);
+            }
+            if (!differing.isEmpty()) {
+                check(differing);
+            }
+        } catch (Exception e) {
+            log.error("Low-stock reconcile failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Reads outside any lock. A reading stamped later started after every commit an earlier one
+    // was checking for, so it may replace it; an earlier one arriving late is dropped per item.
+    private void check(Collection<Long> itemIds) {
+        long reading = readings.incrementAndGet();
+        Map<Long, StockLevel> levels = new HashMap<>();
+        for (StockLevel level : itemRepository.findStockLevels(itemIds)) {
+            levels.put(level.getItemId(), currentLevel(level));
+        }
+
+        List<LowStockEvent> events = new ArrayList<>();
+        for (Long id : itemIds) {
+            StockLevel level = levels.get(id);
+            appliedReadings.compute(id, (itemId, applied) -> {
+                if (applied != null && applied > reading) {
+                    return applied;
+                }
+                if (level == null) {
+                    // Deleted
+                    lowStockIds.remove(itemId);
+                } else if (level.isLowStock() ? lowStockIds.add(itemId) : lowStockIds.remove(itemId)) {
+                    events.add(new LowStockEvent(level, level.isLowStock()));
+                }
+                return reading;
+            });
+        }
+        events.forEach(eventPublisher::publishEvent);
+    }
+
+    private StockLevel currentLevel(StockLevel level) {
+        if (stockLedger.isEmpty()) {
+            return level;
+        }
+        Integer stock = stockLedger.get().getStock(level.getItemId());
+        return stock != null ? level.withCurrentStock(stock) : level;
+    }
+}
@@ -0,0 +1,226 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.SalesPeriod;
+import com.billingapp.dto.SalesSummary;
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.BillReturn;
+import com.billingapp.entity.SalesDailyRollup;
+import com.billingapp.repository.SalesDailyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sales totals served from {@code sales_daily_rollup}, one row per day and bill type.
+ *
+ * Bills are added to and removed from the rollup in the transaction that saves or deletes
+ * them, and returns are netted into the day they are made on, so reports cost O(days) however
+ * many bills there are. A nightly job recomputes
+ * recent closed days from the bills table to repair any drift (e.g. bills edited by hand).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesReportService {
+
+    public enum Granularity { DAY, WEEK, MONTH }
+
+    private final SalesDailyRollupRepository rollupRepository;
+
+    @Value("${billing.sales-rollup.rebuild-days:7}")
+    private int rebuildDays;
+
+    /**
+     * Add a newly saved bill to its day's totals. Must run in the transaction that saved it.
+     */
+    public void recordBill(Bill bill) {
+        rollupRepository.addToDay(delta(bill, 1));
+    }
+
+    /**
+     * Add several newly saved bills, with one rollup write per day and type they touch.
+     */
+    public void recordBills(Collection<Bill> bills) {
+        Map<SalesDailyRollup.Key, SalesDailyRollup> days = new LinkedHashMap<>();
+        for (Bill bill : bills) {
+            SalesDailyRollup.Key key = new SalesDailyRollup.Key(bill.getBillDate().toLocalDate(), bill.getType());
+            SalesDailyRollup day = days.computeIfAbsent(key, SalesReportService::emptyDay);
+            day.setBillCount(day.getBillCount() + 1);
+            day.setSubtotal(day.getSubtotal().add(bill.getSubtotal()));
+            day.setTaxAmount(day.getTaxAmount().add(bill.getTaxAmount()));
+            day.setDiscountAmount(day.getDiscountAmount().add(bill.getDiscountAmount()));
+            day.setGrandTotal(day.getGrandTotal().add(bill.getGrandTotal()));
+        }
+        days.values().forEach(rollupRepository::addToDay);
+    }
+
+    /**
+     * Take a bill that is being deleted back out of its day's totals.
+     */
+    public void reverseBill(Bill bill) {
+        rollupRepository.addToDay(delta(bill, -1));
+    }
+
+    /**
+     * Net newly saved returns against the sales of the day they were made on, with one rollup
+     * write per day and bill type. Must run in the transaction that saved them.
+     */
+    public void recordReturns(Collection<BillReturn> returns) {
+        addReturns(returns, 1);
+    }
+
+    /**
+     * Take returns of a bill that is being deleted back out of their days' totals.
+     */
+    public void reverseReturns(Collection<BillReturn> returns) {
+        addReturns(returns, -1);
+    }
+
+    /**
+     * Sales between two dates (inclusive), grouped by day, ISO week or calendar month.
+     * Periods are clipped to the requested range and periods without sales are left out.
+     * @param type Only this bill type; null, blank or "all" for every type
+     * @throws IllegalArgumentException if the range is reversed or the granularity is unknown
+     */
+    @Transactional(readOnly = true)
+    public SalesSummary getSummary(LocalDate startDate, LocalDate endDate, String granularity, String type) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        Granularity unit = parseGranularity(granularity);
+
+        List<SalesDailyRollup> days = type == null || type.isBlank() || "all".equals(type)
+                ? rollupRepository.findBySaleDateBetweenOrderBySaleDateAsc(startDate, endDate)
+                : rollupRepository.findBySaleDateBetweenAndTypeOrderBySaleDateAsc(startDate, endDate, type);
+
+        SalesPeriod range = new SalesPeriod(startDate, endDate);
+        Map<LocalDate, SalesPeriod> periods = new TreeMap<>();
+        for (SalesDailyRollup day : days) {
+            range.add(day);
+            LocalDate periodStart = periodStart(day.getSaleDate(), unit);
+            periods.computeIfAbsent(periodStart, start -> new SalesPeriod(
+                    max(start, startDate), min(periodEnd(start, unit), endDate))).add(day);
+        }
+        return new SalesSummary(unit.name(), range, new ArrayList<>(periods.values()));
+    }
+
+    /**
+     * Recompute the rollup for {@code [startDate, endDate]} from the bills table; null bounds
+     * mean unbounded. Bills saved for these days while the rebuild runs may be missed, so run
+     * it when the shop is closed or for days that are over.
+     * @return Number of rollup rows written
+     */
+    @Transactional
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        int rows = rollupRepository.rebuild(startDate, endDate);
+        log.info("Rebuilt sales rollup for {} to {}: {} rows", startDate, endDate, rows);
+        return rows;
+    }
+
+    @Scheduled(cron = "${billing.sales-rollup.rebuild-cron:0 30 2 * * *}")
+    public void rebuildRecentDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        try {
+            rebuild(yesterday.minusDays(rebuildDays - 1L), yesterday);
+        } catch (Exception e) {
+            log.error("Sales rollup rebuild failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private static Granularity parseGranularity(String granularity) {
+        if (granularity == null || granularity.isBlank()) {
+            return Granularity.DAY;
+        }
+        try {
+            return Granularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown granularity: " + granularity + " (use day, week or month)");
+        }
+    }
+
+    private static LocalDate periodStart(LocalDate day, Granularity unit) {
+        switch (unit) {
+            case WEEK:
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return day.withDayOfMonth(1);
+            default:
+                return day;
+        }
+    }
+
+    private static LocalDate periodEnd(LocalDate periodStart, Granularity unit) {
+        switch (unit) {
+            case WEEK:
+                return periodStart.plusDays(6);
+            case MONTH:
+                return periodStart.with(TemporalAdjusters.lastDayOfMonth());
+            default:
+                return periodStart;
+        }
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private void addReturns(Collection<BillReturn> returns, int sign) {
+        Map<SalesDailyRollup.Key, SalesDailyRollup> days = new LinkedHashMap<>();
+        for (BillReturn billReturn : returns) {
+            SalesDailyRollup.Key key = new SalesDailyRollup.Key(billReturn.getReturnDate().toLocalDate(),
+                    billReturn.getBillType());
+            SalesDailyRollup day = days.computeIfAbsent(key, SalesReportService::emptyDay);
+            day.setReturnCount(day.getReturnCount() + sign);
+            // A return takes its amounts off the day's sales
+            day.setSubtotal(day.getSubtotal().subtract(signed(billReturn.getSubtotal(), sign)));
+            day.setTaxAmount(day.getTaxAmount().subtract(signed(billReturn.getTaxAmount(), sign)));
+            day.setDiscountAmount(day.getDiscountAmount().subtract(signed(billReturn.getDiscountAmount(), sign)));
+            day.setGrandTotal(day.getGrandTotal().subtract(signed(billReturn.getGrandTotal(), sign)));
+            day.setRefundTotal(day.getRefundTotal().add(signed(billReturn.getGrandTotal(), sign)));
+        }
+        days.values().forEach(rollupRepository::addToDay);
+    }
+
+    private static SalesDailyRollup delta(Bill bill, int sign) {
+        SalesDailyRollup day = emptyDay(new SalesDailyRollup.Key(bill.getBillDate().toLocalDate(), bill.getType()));
+        day.setBillCount(sign);
+        day.setSubtotal(signed(bill.getSubtotal(), sign));
+        day.setTaxAmount(signed(bill.getTaxAmount(), sign));
+        day.setDiscountAmount(signed(bill.getDiscountAmount(), sign));
+        day.setGrandTotal(signed(bill.getGrandTotal(), sign));
+        return day;
+    }
+
+    private static SalesDailyRollup emptyDay(SalesDailyRollup.Key key) {
+        SalesDailyRollup day = new SalesDailyRollup();
+        day.setSaleDate(key.getSaleDate());
+        day.setType(key.getType());
+        return day;
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return sign < 0 ? value.negate() : value;
+    }
+}
@@ -0,0 +1,453 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.StockShortage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stock counters with write-behind to {@code items.current_stock}.
+ *
+ * Sales reserve stock with a CAS on a per-item counter, so concurrent checkouts of the same
+ * item never wait on its database row. Committed changes are appended to a local log and
+ * coalesced per item; a scheduled flush writes them to the items table in one batch together
+ * with the last log sequence it covers. On startup, log entries newer than that sequence are
+ * replayed into the database before the counters are loaded.
+ *
+ * An absolute stock level (a stock count, an item edit) goes through the ledger as well: it
+ * replaces the item's unflushed deltas and is written as a plain value by the next flush, so
+ * sales made before it are not counted twice.
+ *
+ * Enabled with {@code billing.stock-ledger.enabled=true}. While enabled, stock read from the
+ * items table may lag the ledger by one flush interval.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "billing.stock-ledger.enabled", havingValue = "true")
+public class StockLedger {
+
+    // seq (long), item id (long), delta (int); a negated item id marks an absolute stock level
+    private static final int RECORD_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemCatalogCache itemCatalogCache;
+    private final Path logPath;
+    private final boolean syncWrites;
+
+    // Stock on hand per item, already net of reservations whose transaction is still open
+    private final ConcurrentHashMap<Long, AtomicInteger> stock = new ConcurrentHashMap<>();
+    // Reserved quantities whose transaction has not completed yet
+    private final ConcurrentHashMap<Long, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    // Committed deltas not yet written to the items table, the log and its sequence are guarded by logLock
+    private final Object logLock = new Object();
+    private final Map<Long, Integer> pendingDeltas = new HashMap<>();
+    // Absolute stock levels not yet written; an item's pending delta is on top of its level here
+    private final Map<Long, Integer> pendingLevels = new HashMap<>();
+    private FileChannel logChannel;
+    private long sequence;
+
+    public StockLedger(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       ItemCatalogCache itemCatalogCache,
+                       @Value("${billing.stock-ledger.log-path:data/stock-ledger.log}") String logPath,
+                       @Value("${billing.stock-ledger.sync-writes:true}") boolean syncWrites) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.itemCatalogCache = itemCatalogCache;
+        this.logPath = Paths.get(logPath);
+        this.syncWrites = syncWrites;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        Path parent = logPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Long checkpoint = jdbcTemplate.queryForObject(
+                "SELECT last_sequence FROM stock_ledger_checkpoint WHERE id = 1", Long.class);
+        long flushed = checkpoint != null ? checkpoint : 0L;
+        long lastSequence = flushed;
+        Map<Long, Integer> replay = new TreeMap<>();
+        Map<Long, Integer> replayLevels = new TreeMap<>();
+
+        if (Files.exists(logPath)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(logPath)))) {
+                while (true) {
+                    long seq;
+                    long itemId;
+                    int delta;
+                    try {
+                        seq = in.readLong();
+                        itemId = in.readLong();
+                        delta = in.readInt();
+                    } catch (EOFException e) {
+                        // End of log, or a record torn by a crash mid-write
+                        break;
+                    }
+                    if (seq > flushed) {
+                        if (itemId < 0) {
+                            replay.remove(-itemId);
+                            replayLevels.put(-itemId, delta);
+                        } else {
+                            replay.merge(itemId, delta, Integer::sum);
+                        }
+                        lastSequence = Math.max(lastSequence, seq);
+                    }
+                }
+            }
+        }
+
+        if (lastSequence > flushed) {
+            log.info("Replaying stock ledger entries {} to {} for {} items", flushed + 1, lastSequence,
+                    replay.size() + replayLevels.size());
+            writeBehind(replayLevels, replay, lastSequence);
+        }
+        sequence = lastSequence;
+        logChannel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        jdbcTemplate.query("SELECT id, current_stock FROM items",
+                rs -> { stock.put(rs.getLong("id"), new AtomicInteger(rs.getInt("current_stock"))); });
+        log.info("Stock ledger loaded {} items", stock.size());
+    }
+
+    /**
+     * Reserve stock for every given item, or for none of them. The reservation is logged when
+     * the current transaction commits and given back if it rolls back.
+     * @param quantitiesByItem Quantity to take per item id (positive numbers)
+     * @return Items that could not be covered; empty when everything was reserved
+     */
+    public List<StockShortage> reserve(Map<Long, Integer> quantitiesByItem) {
+        Map<Long, Integer> taken = new HashMap<>();
+        List<StockShortage> shortages = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> entry : quantitiesByItem.entrySet()) {
+            AtomicInteger counter = counterFor(entry.getKey());
+            int quantity = entry.getValue();
+            if (counter == null) {
+                shortages.add(new StockShortage(entry.getKey(), null, quantity, null));
+            } else if (tryTake(counter, quantity)) {
+                taken.put(entry.getKey(), quantity);
+            } else {
+                shortages.add(new StockShortage(entry.getKey(), null, quantity, counter.get()));
+            }
+        }
+
+        if (!shortages.isEmpty()) {
+            taken.forEach((itemId, quantity) -> stock.get(itemId).addAndGet(quantity));
+            return shortages;
+        }
+
+        Map<Long, Integer> deltas = new HashMap<>();
+        taken.forEach((itemId, quantity) -> {
+            inFlight.computeIfAbsent(itemId, id -> new AtomicInteger()).addAndGet(quantity);
+            deltas.put(itemId, -quantity);
+        });
+        afterCompletion(committed -> {
+            taken.forEach((itemId, quantity) -> {
+                addIfPresent(inFlight, itemId, -quantity);
+                if (!committed) {
+                    addIfPresent(stock, itemId, quantity);
+                }
+            });
+            if (committed) {
+                append(deltas);
+            }
+        });
+        return shortages;
+    }
+
+    /**
+     * Put stock back (returns, restocking). Counters change only once the transaction commits.
+     * @return false if one of the items does not exist
+     */
+    public boolean restock(Map<Long, Integer> quantitiesByItem) {
+        for (Long itemId : quantitiesByItem.keySet()) {
+            if (counterFor(itemId) == null) {
+                return false;
+            }
+        }
+        afterCompletion(committed -> {
+            if (committed) {
+                quantitiesByItem.forEach((itemId, quantity) -> {
+                    AtomicInteger counter = counterFor(itemId);
+                    if (counter != null) {
+                        counter.addAndGet(quantity);
+                    }
+                });
+                append(quantitiesByItem);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Stock on hand for an item, or null if it does not exist.
+     */
+    public Integer getStock(Long itemId) {
+        AtomicInteger counter = counterFor(itemId);
+        return counter != null ? counter.get() : null;
+    }
+
+    /**
+     * Set an item's stock to an absolute level, e.g. a manual stock correction, once the
+     * current transaction commits. The level already counts every committed sale, so it
+     * replaces the item's unflushed deltas and the next flush writes it as is; reservations
+     * still open are taken off it.
+     */
+    public void overwrite(Long itemId, int newStock) {
+        afterCompletion(committed -> {
+            if (!committed) {
+                return;
+            }
+            synchronized (logLock) {
+                pendingDeltas.remove(itemId);
+                pendingLevels.put(itemId, newStock);
+                writeLog(encode(Map.of(itemId, newStock), Map.of(), ++sequence));
+                AtomicInteger reserved = inFlight.get(itemId);
+                int value = newStock - (reserved != null ? reserved.get() : 0);
+                stock.computeIfAbsent(itemId, id -> new AtomicInteger()).set(value);
+            }
+        });
+    }
+
+    public void forget(Long itemId) {
+        afterCompletion(committed -> {
+            if (committed) {
+                stock.remove(itemId);
+                inFlight.remove(itemId);
+            }
+        });
+    }
+
+    /**
+     * Write coalesced deltas to the items table and compact the log.
+     */
+    @Scheduled(fixedDelayString = "${billing.stock-ledger.flush-interval-ms:1000}")
+    public void flush() {
+        Map<Long, Integer> batch;
+        Map<Long, Integer> levels;
+        long upTo;
+        synchronized (logLock) {
+            if (pendingDeltas.isEmpty() && pendingLevels.isEmpty()) {
+                return;
+            }
+            batch = new TreeMap<>(pendingDeltas);
+            levels = new TreeMap<>(pendingLevels);
+            pendingDeltas.clear();
+            pendingLevels.clear();
+            upTo = sequence;
+        }
+
+        try {
+            writeBehind(levels, batch, upTo);
+        } catch (RuntimeException e) {
+            log.warn("Stock ledger flush failed, will retry: {}", e.getMessage());
+            synchronized (logLock) {
+                // Items given a new level meanwhile no longer need anything from this batch
+                batch.forEach((itemId, delta) -> {
+                    if (!pendingLevels.containsKey(itemId)) {
+                        pendingDeltas.merge(itemId, delta, Integer::sum);
+                    }
+                });
+                levels.forEach(pendingLevels::putIfAbsent);
+            }
+            return;
+        }
+        compactLog(upTo);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        synchronized (logLock) {
+            logChannel.close();
+        }
+    }
+
+    private AtomicInteger counterFor(Long itemId) {
+        AtomicInteger counter = stock.get(itemId);
+        if (counter != null) {
+            return counter;
+        }
+        // Items created after startup are loaded on first use
+        List<Integer> current = jdbcTemplate.queryForList(
+                "SELECT current_stock FROM items WHERE id = ?", Integer.class, itemId);
+        if (current.isEmpty()) {
+            return null;
+        }
+        return stock.computeIfAbsent(itemId, id -> new AtomicInteger(current.get(0)));
+    }
+
+    // Counters may have been dropped by forget() while a transaction was open
+    private static void addIfPresent(Map<Long, AtomicInteger> counters, Long itemId, int delta) {
+        AtomicInteger counter = counters.get(itemId);
+        if (counter != null) {
+            counter.addAndGet(delta);
+        }
+    }
+
+    private static boolean tryTake(AtomicInteger counter, int quantity) {
+        int current;
+        do {
+            current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private void afterCompletion(CompletionCallback callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.completed(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.completed(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void append(Map<Long, Integer> deltas) {
+        synchronized (logLock) {
+            long seq = ++sequence;
+            deltas.forEach((itemId, delta) -> pendingDeltas.merge(itemId, delta, Integer::sum));
+            writeLog(encode(Map.of(), deltas, seq));
+        }
+    }
+
+    // Caller holds logLock
+    private void writeLog(ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer);
+            }
+            if (syncWrites) {
+                logChannel.force(false);
+            }
+        } catch (IOException e) {
+            // The change is still flushed from memory; only crash recovery for it is lost
+            log.error("Could not append to stock ledger log: {}", e.getMessage(), e);
+        }
+    }
+
+    private void writeBehind(Map<Long, Integer> levels, Map<Long, Integer> deltas, long upTo) {
+        // Items given a new level after this batch was taken are written by the next flush instead
+        Set<Long> overwritten;
+        synchronized (logLock) {
+            overwritten = new HashSet<>(pendingLevels.keySet());
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> levelArgs = new ArrayList<>(levels.size());
+        List<Object[]> deltaArgs = new ArrayList<>(deltas.size());
+        Set<Long> written = new HashSet<>();
+        levels.forEach((itemId, level) -> {
+            if (!overwritten.contains(itemId)) {
+                levelArgs.add(new Object[] {level + deltas.getOrDefault(itemId, 0), now, itemId});
+                written.add(itemId);
+            }
+        });
+        deltas.forEach((itemId, delta) -> {
+            if (delta != 0 && !levels.containsKey(itemId) && !overwritten.contains(itemId)) {
+                deltaArgs.add(new Object[] {delta, now, itemId});
+                written.add(itemId);
+            }
+        });
+
+        // The checkpoint moves in the same transaction as the stock, so a replay never applies twice
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!levelArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE items SET current_stock = ?, updated_at = ? WHERE id = ?", levelArgs);
+            }
+            if (!deltaArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE items SET current_stock = current_stock + ?, updated_at = ? WHERE id = ?", deltaArgs);
+            }
+            jdbcTemplate.update("UPDATE stock_ledger_checkpoint SET last_sequence = ? WHERE id = 1", upTo);
+            // A sale evicts its items when it commits, before their stock is flushed, so a read in
+            // between caches the old row; drop it again now that the row is current
+            itemCatalogCache.evictAfterCommit(written);
+        });
+    }
+
+    private void compactLog(long flushedUpTo) {
+        synchronized (logLock) {
+            try {
+                if (sequence == flushedUpTo) {
+                    logChannel.truncate(0);
+                    return;
+                }
+                // Entries after flushedUpTo are exactly the pending levels and deltas, one record per item each
+                Path tmp = logPath.resolveSibling(logPath.getFileName() + ".tmp");
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer buffer = encode(pendingLevels, pendingDeltas, sequence);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    out.force(true);
+                }
+                Files.move(tmp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                FileChannel compacted = FileChannel.open(logPath, StandardOpenOption.WRITE);
+                compacted.position(compacted.size());
+                logChannel.close();
+                logChannel = compacted;
+            } catch (IOException e) {
+                log.warn("Could not compact stock ledger log: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Levels first, so a replay applies the deltas logged with them on top
+    private static ByteBuffer encode(Map<Long, Integer> levels, Map<Long, Integer> deltas, long seq) {
+        ByteBuffer buffer = ByteBuffer.allocate((levels.size() + deltas.size()) * RECORD_BYTES);
+        levels.forEach((itemId, level) -> buffer.putLong(seq).putLong(-itemId).putInt(level));
+        deltas.forEach((itemId, delta) -> buffer.putLong(seq).putLong(itemId).putInt(delta));
+        buffer.flip();
+        return buffer;
+    }
+
+    @FunctionalInterface
+    private interface CompletionCallback {
+        void completed(boolean committed);
+    }
+}
@@ -0,0 +1,167 @@
+package com.billingapp.service;
+
+import com.billingapp.dto.BillResponse;
+import com.billingapp.dto.ItemSummary;
+import com.billingapp.dto.SyncCursor;
+import com.billingapp.dto.SyncPage;
+import com.billingapp.entity.Bill;
+import com.billingapp.entity.SyncTombstone;
+import com.billingapp.repository.BillRepository;
+import com.billingapp.repository.ItemRepository;
+import com.billingapp.repository.SyncTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Change feeds for offline tills. Each feed walks rows in (updated_at, id) order from the
+ * till's cursor and interleaves tombstones of deleted rows, so a reconnecting till only
+ * downloads what changed since it last synced.
+ *
+ * updated_at is stamped by the application before commit, so a slow transaction can commit
+ * a row older than one already served. The feed therefore stops {@code settle-seconds}
+ * before now and picks those rows up on the next call.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    public static final int DEFAULT_LIMIT = 200;
+    public static final int MAX_LIMIT = 1000;
+
+    // Start of every feed: before any row could have been written
+    private static final SyncCursor ORIGIN = new SyncCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final ItemRepository itemRepository;
+    private final BillRepository billRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+
+    @Value("${billing.sync.settle-seconds:5}")
+    private long settleSeconds;
+
+    @Value("${billing.sync.tombstone-retention-days:90}")
+    private long retentionDays;
+
+    /**
+     * Items changed or deleted after the cursor.
+     * @param since Cursor from the previous batch, or null for a full download
+     * @param limit Maximum number of changes and deletions together, clamped to {@link #MAX_LIMIT}
+     */
+    @Transactional(readOnly = true)
+    public SyncPage<ItemSummary> itemChanges(String since, int limit) {
+        Feed feed = new Feed(since, limit);
+        List<ItemSummary> items = itemRepository.findChanges(
+                feed.from.getTimestamp(), feed.from.getId(), feed.until, feed.rows());
+        return feed.merge(items, ItemSummary::getUpdatedAt, ItemSummary::getId, SyncTombstone.ITEM);
+    }
+
+    /**
+     * Bills (with their items) changed or deleted after the cursor.
+     * @param since Cursor from the previous batch, or null for a full download
+     * @param limit Maximum number of changes and deletions together, clamped to {@link #MAX_LIMIT}
+     */
+    @Transactional(readOnly = true)
+    public SyncPage<BillResponse> billChanges(String since, int limit) {
+        Feed feed = new Feed(since, limit);
+        List<Bill> bills = billRepository.findChanges(
+                feed.from.getTimestamp(), feed.from.getId(), feed.until, feed.rows());
+        // Initialise the items of the whole batch with one query instead of one per bill
+        if (!bills.isEmpty()) {
+            billRepository.fetchItemsForBills(bills.stream().map(Bill::getId).collect(Collectors.toList()));
+        }
+        List<BillResponse> responses = bills.stream().map(BillResponse::fromEntity).collect(Collectors.toList());
+        return feed.merge(responses, BillResponse::getUpdatedAt, BillResponse::getId, SyncTombstone.BILL);
+    }
+
+    /**
+     * Leave a tombstone for a deleted item or bill. Must run in the deleting transaction.
+     */
+    public void recordDeletion(String entityType, Long entityId) {
+        tombstoneRepository.save(new SyncTombstone(entityType, entityId, LocalDateTime.now()));
+    }
+
+    @Scheduled(cron = "${billing.sync.purge-cron:0 45 2 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        try {
+            int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+            log.info("Purged {} sync tombstones older than {} days", purged, retentionDays);
+        } catch (Exception e) {
+            log.error("Sync tombstone purge failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Bounds of one batch: where it starts, where it must stop, and how many entries it may hold
+    private final class Feed {
+        private final SyncCursor from;
+        private final LocalDateTime until;
+        private final int limit;
+        private final boolean reset;
+
+        Feed(String since, int limit) {
+            LocalDateTime now = LocalDateTime.now();
+            SyncCursor cursor = since != null && !since.isEmpty() ? SyncCursor.decode(since) : null;
+            // Deletions older than the retention period are gone, so such a cursor cannot be continued
+            this.reset = cursor != null && cursor.isBefore(now.minusDays(retentionDays));
+            this.from = cursor == null || reset ? ORIGIN : cursor;
+            this.until = now.minusSeconds(settleSeconds);
+            this.limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        }
+
+        // One extra row tells whether another batch exists
+        PageRequest rows() {
+            return PageRequest.of(0, limit + 1);
+        }
+
+        <T> SyncPage<T> merge(List<T> rows, Function<T, LocalDateTime> timestampOf, Function<T, Long> idOf,
+                              String entityType) {
+            List<SyncTombstone> tombstones = tombstoneRepository.findChanges(
+                    entityType, from.getTimestamp(), from.getId(), until, rows());
+
+            // Both lists are in (time, id) order; take the first `limit` entries of their union
+            List<T> changed = new ArrayList<>();
+            List<Long> deleted = new ArrayList<>();
+            SyncCursor last = null;
+            int r = 0;
+            int t = 0;
+            while (changed.size() + deleted.size() < limit && (r < rows.size() || t < tombstones.size())) {
+                boolean takeRow;
+                if (t == tombstones.size()) {
+                    takeRow = true;
+                } else if (r == rows.size()) {
+                    takeRow = false;
+                } else {
+                    T row = rows.get(r);
+                    SyncTombstone tombstone = tombstones.get(t);
+                    int order = timestampOf.apply(row).compareTo(tombstone.getDeletedAt());
+                    takeRow = order < 0 || (order == 0 && idOf.apply(row) < tombstone.getEntityId());
+                }
+                if (takeRow) {
+                    T row = rows.get(r++);
+                    changed.add(row);
+                    last = new SyncCursor(timestampOf.apply(row), idOf.apply(row));
+                } else {
+                    SyncTombstone tombstone = tombstones.get(t++);
+                    deleted.add(tombstone.getEntityId());
+                    last = new SyncCursor(tombstone.getDeletedAt(), tombstone.getEntityId());
+                }
+            }
+            boolean hasMore = r < rows.size() || t < tombstones.size();
+
+            // With nothing new the till keeps its cursor; a first empty sync has none yet
+            String nextCursor = last != null ? last.encode() : (from == ORIGIN ? null : from.encode());
+            return new SyncPage<>(changed, deleted, nextCursor, hasMore, reset);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Change feed for offline tills (GET /api/sync/items, /api/sync/bills).
+-- Rows are read in (updated_at, id) order, so updated_at must always be set.
+UPDATE items SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+UPDATE bills SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+
+-- items(updated_at, id) is indexed by V9
+CREATE INDEX IF NOT EXISTS idx_bills_updated_at_id ON bills(updated_at, id);
+
+-- Deleted items and bills, kept for the retention period so tills can drop their copies
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_feed ON sync_tombstones(entity_type, deleted_at, entity_id);
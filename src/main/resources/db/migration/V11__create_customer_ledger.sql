@@ -0,0 +1,66 @@
+-- Customers who buy on credit, with their running outstanding balance.
+-- customer_key identifies a customer: 'P:' + phone digits when the phone has at least 6 digits,
+-- else 'N:' + the lower-cased name with collapsed spaces (see CustomerLedgerService.customerKey).
+CREATE TABLE IF NOT EXISTS customers (
+    id BIGSERIAL PRIMARY KEY,
+    customer_key VARCHAR(300) NOT NULL UNIQUE,
+    name VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(50),
+    outstanding_balance NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP
+);
+
+-- Top debtors read the head of this index
+CREATE INDEX IF NOT EXISTS idx_customers_outstanding ON customers(outstanding_balance DESC)
+    WHERE outstanding_balance > 0;
+
+-- Credit bills (+), payments (-) and reversals of deleted credit bills (-)
+CREATE TABLE IF NOT EXISTS customer_ledger (
+    id BIGSERIAL PRIMARY KEY,
+    customer_id BIGINT NOT NULL REFERENCES customers(id),
+    entry_type VARCHAR(20) NOT NULL,
+    bill_id BIGINT,
+    amount NUMERIC(14, 2) NOT NULL,
+    balance_after NUMERIC(14, 2) NOT NULL,
+    note VARCHAR(255),
+    entry_date TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_customer_ledger_customer ON customer_ledger(customer_id, id);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_customer_ledger_bill ON customer_ledger(bill_id, entry_type)
+    WHERE bill_id IS NOT NULL;
+
+-- Backfill from existing credit bills
+WITH credit AS (
+    SELECT b.*,
+           CASE WHEN LENGTH(regexp_replace(COALESCE(b.phone_number, ''), '[^0-9]', '', 'g')) >= 6
+                THEN 'P:' || regexp_replace(b.phone_number, '[^0-9]', '', 'g')
+                ELSE 'N:' || lower(regexp_replace(trim(b.customer_name), '\s+', ' ', 'g'))
+           END AS customer_key
+    FROM bills b
+    WHERE b.type = 'CREDIT'
+)
+INSERT INTO customers (customer_key, name, phone_number, outstanding_balance, created_at, updated_at)
+SELECT customer_key, MAX(customer_name), MAX(phone_number), SUM(grand_total), MIN(bill_date), CURRENT_TIMESTAMP
+FROM credit
+GROUP BY customer_key
+ON CONFLICT (customer_key) DO NOTHING;
+
+WITH credit AS (
+    SELECT b.*,
+           CASE WHEN LENGTH(regexp_replace(COALESCE(b.phone_number, ''), '[^0-9]', '', 'g')) >= 6
+                THEN 'P:' || regexp_replace(b.phone_number, '[^0-9]', '', 'g')
+                ELSE 'N:' || lower(regexp_replace(trim(b.customer_name), '\s+', ' ', 'g'))
+           END AS customer_key
+    FROM bills b
+    WHERE b.type = 'CREDIT'
+)
+INSERT INTO customer_ledger (customer_id, entry_type, bill_id, amount, balance_after, entry_date, created_at)
+SELECT c.id, 'CREDIT_BILL', credit.id, credit.grand_total,
+       SUM(credit.grand_total) OVER (PARTITION BY c.id ORDER BY credit.bill_date, credit.id),
+       credit.bill_date, CURRENT_TIMESTAMP
+FROM credit
+JOIN customers c ON c.customer_key = credit.customer_key
+ORDER BY credit.bill_date, credit.id;
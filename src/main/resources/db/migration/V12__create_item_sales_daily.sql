@@ -0,0 +1,21 @@
+-- Quantity and revenue per item and calendar day, kept up to date by the application
+CREATE TABLE IF NOT EXISTS item_sales_daily (
+    sale_date DATE NOT NULL,
+    item_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    bill_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (sale_date, item_id)
+);
+
+-- Per-item lookups (velocity of one item over a window)
+CREATE INDEX IF NOT EXISTS idx_item_sales_daily_item ON item_sales_daily(item_id, sale_date);
+
+-- Backfill from existing bills
+INSERT INTO item_sales_daily (sale_date, item_id, quantity, revenue, bill_count, updated_at)
+SELECT CAST(b.bill_date AS DATE), bi.item_id, SUM(bi.quantity), SUM(bi.total), COUNT(DISTINCT b.id), NOW()
+FROM bill_items bi
+JOIN bills b ON b.id = bi.bill_id
+GROUP BY CAST(b.bill_date AS DATE), bi.item_id
+ON CONFLICT (sale_date, item_id) DO NOTHING;
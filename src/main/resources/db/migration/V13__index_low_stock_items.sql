@@ -0,0 +1,3 @@
+-- Items at or below their reorder level. Only those rows are in the index, so loading the
+-- low-stock set (LowStockTracker) reads a handful of entries instead of the whole table.
+CREATE INDEX IF NOT EXISTS idx_items_low_stock ON items(id) WHERE current_stock <= min_stock_level;
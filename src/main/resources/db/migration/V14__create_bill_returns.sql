@@ -0,0 +1,46 @@
+-- Credit notes: goods brought back against a bill, possibly only some of its lines or units.
+-- Amounts are the bill's, pro rata to the returned lines; bill_type is copied from the bill so
+-- the sales rollups can be kept and rebuilt from this table alone.
+CREATE TABLE IF NOT EXISTS bill_returns (
+    id BIGSERIAL PRIMARY KEY,
+    return_number VARCHAR(120) NOT NULL UNIQUE,
+    bill_id BIGINT NOT NULL REFERENCES bills(id),
+    bill_type VARCHAR(50) NOT NULL,
+    reason VARCHAR(255),
+    subtotal NUMERIC(10, 2) NOT NULL,
+    tax_amount NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    discount_amount NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    grand_total NUMERIC(10, 2) NOT NULL,
+    return_date TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_bill_returns_bill_id ON bill_returns(bill_id);
+CREATE INDEX IF NOT EXISTS idx_bill_returns_return_date ON bill_returns(return_date);
+
+CREATE TABLE IF NOT EXISTS bill_return_items (
+    id BIGSERIAL PRIMARY KEY,
+    return_id BIGINT NOT NULL REFERENCES bill_returns(id) ON DELETE CASCADE,
+    bill_item_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    item_name VARCHAR(255) NOT NULL,
+    quantity INTEGER NOT NULL,
+    total NUMERIC(10, 2) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_bill_return_items_return_id ON bill_return_items(return_id);
+
+-- Pooled ids, as for bills (V7), so a batch of returns is inserted in batches
+ALTER SEQUENCE bill_returns_id_seq INCREMENT BY 50;
+ALTER SEQUENCE bill_return_items_id_seq INCREMENT BY 50;
+
+-- Returns are netted into the day they happen on; the counters keep return-only days
+-- from being dropped as empty
+ALTER TABLE sales_daily_rollup ADD COLUMN IF NOT EXISTS return_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE sales_daily_rollup ADD COLUMN IF NOT EXISTS refund_total NUMERIC(14, 2) NOT NULL DEFAULT 0;
+ALTER TABLE item_sales_daily ADD COLUMN IF NOT EXISTS returned_quantity BIGINT NOT NULL DEFAULT 0;
+
+-- A credit bill can have several returns, each with its own ledger entry
+DROP INDEX IF EXISTS idx_customer_ledger_bill;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_customer_ledger_bill ON customer_ledger(bill_id, entry_type)
+    WHERE bill_id IS NOT NULL AND entry_type <> 'BILL_RETURN';
@@ -0,0 +1,7 @@
+-- Last stock ledger log sequence whose deltas are reflected in items.current_stock
+CREATE TABLE IF NOT EXISTS stock_ledger_checkpoint (
+    id SMALLINT PRIMARY KEY,
+    last_sequence BIGINT NOT NULL
+);
+
+INSERT INTO stock_ledger_checkpoint (id, last_sequence) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,19 @@
+-- Bill totals per calendar day and bill type, kept up to date by the application
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+    sale_date DATE NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    bill_count BIGINT NOT NULL DEFAULT 0,
+    subtotal NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    tax_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    discount_amount NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    grand_total NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (sale_date, type)
+);
+
+-- Backfill from existing bills
+INSERT INTO sales_daily_rollup (sale_date, type, bill_count, subtotal, tax_amount, discount_amount, grand_total, updated_at)
+SELECT CAST(bill_date AS DATE), type, COUNT(*), SUM(subtotal), SUM(tax_amount), SUM(discount_amount), SUM(grand_total), NOW()
+FROM bills
+GROUP BY CAST(bill_date AS DATE), type
+ON CONFLICT (sale_date, type) DO NOTHING;
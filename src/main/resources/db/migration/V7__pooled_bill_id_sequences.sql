@@ -0,0 +1,5 @@
+-- Bill and BillItem ids come from these sequences through Hibernate's pooled optimizer,
+-- which reserves 50 ids per call. The BIGSERIAL column defaults keep working for plain SQL
+-- inserts: each takes the top id of a fresh block, which the application never hands out.
+ALTER SEQUENCE bills_id_seq INCREMENT BY 50;
+ALTER SEQUENCE bill_items_id_seq INCREMENT BY 50;
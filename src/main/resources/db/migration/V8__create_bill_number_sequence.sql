@@ -0,0 +1,2 @@
+-- Bill numbers are leased in blocks of 100; the increment must match BillNumberGenerator.BLOCK_SIZE
+CREATE SEQUENCE IF NOT EXISTS bill_number_seq START WITH 1 INCREMENT BY 100;
@@ -0,0 +1,2 @@
+-- Catalog validator for conditional GETs: MAX(updated_at) is read from the end of this index
+CREATE INDEX IF NOT EXISTS idx_items_updated_at_id ON items(updated_at, id);